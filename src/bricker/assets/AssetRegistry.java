@@ -0,0 +1,245 @@
+package bricker.assets;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.Renderable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of decoded game assets. Every image and sound is read through the engine
+ * readers at most once and then shared by all game objects and strategies, including across
+ * {@code windowController.resetGame()}. Images are kept under a configurable memory budget and
+ * evicted in least-recently-used order when the budget is exceeded; an evicted image is simply
+ * read again on its next request. Sounds are small clip handles and are never evicted; their
+ * lengths, which the audio mixer needs to count playing voices, are read from the file headers
+ * once and cached with them.
+ */
+public final class AssetRegistry {
+    /** Background image. */
+    public static final String BACKGROUND_IMAGE = "assets/DARK_BG2_small.jpeg";
+    /** Main ball image. */
+    public static final String BALL_IMAGE = "assets/ball.png";
+    /** Puck image. */
+    public static final String PUCK_IMAGE = "assets/mockBall.png";
+    /** Paddle image, shared by the user paddle and the extra paddle. */
+    public static final String PADDLE_IMAGE = "assets/paddle.png";
+    /** Autopilot paddle image, good skill. */
+    public static final String BOT_GOOD_IMAGE = "assets/botGood.png";
+    /** Autopilot paddle image, bad skill. */
+    public static final String BOT_BAD_IMAGE = "assets/botBad.png";
+    /** Brick image. */
+    public static final String BRICK_IMAGE = "assets/brick.png";
+    /** Heart image, used by the lives UI and by falling hearts. */
+    public static final String HEART_IMAGE = "assets/heart.png";
+    /** Ball and puck collision sound. */
+    public static final String COLLISION_SOUND = "assets/blop.wav";
+    /** Exploding brick sound. */
+    public static final String EXPLOSION_SOUND = "assets/explosion.wav";
+
+    private static final String[] PRELOADED_IMAGES = {
+            BACKGROUND_IMAGE, BALL_IMAGE, PUCK_IMAGE, PADDLE_IMAGE, BRICK_IMAGE, HEART_IMAGE
+    };
+    private static final String[] PRELOADED_SOUNDS = { COLLISION_SOUND, EXPLOSION_SOUND };
+
+    private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+    // assumed length of a sound whose header cannot be read
+    private static final float DEFAULT_SOUND_SECONDS = 0.25f;
+
+    private static final AssetRegistry INSTANCE = new AssetRegistry(DEFAULT_MEMORY_BUDGET);
+
+    // access-ordered, so iteration starts at the least recently used image
+    private final LinkedHashMap<String, Renderable> images = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> imageSizes = new HashMap<>();
+    private final Map<String, Sound> sounds = new HashMap<>();
+    private final Map<String, Float> soundSeconds = new HashMap<>();
+
+    private ImageReader imageReader;
+    private SoundReader soundReader;
+    private long memoryBudget;
+    private long imageBytes;
+    private int reads;
+    private int hits;
+
+    private AssetRegistry(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * @return the process-wide registry
+     */
+    public static AssetRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Set the readers used for assets that are not cached yet. Called from
+     * {@code initializeGame}; assets that are already cached are kept.
+     *
+     * @param imageReader engine image reader
+     * @param soundReader engine sound reader
+     */
+    public synchronized void bind(ImageReader imageReader, SoundReader soundReader) {
+        this.imageReader = imageReader;
+        this.soundReader = soundReader;
+    }
+
+    /**
+     * Read every asset the game uses, so no decoding happens while the scene is built.
+     */
+    public synchronized void preload() {
+        for (String path : PRELOADED_IMAGES) image(path);
+        for (String path : PRELOADED_SOUNDS) {
+            sound(path);
+            soundSeconds(path);
+        }
+    }
+
+    /**
+     * Return the image at {@code path}, reading it (with transparency) on first use.
+     *
+     * @param path asset path
+     * @return the shared renderable; may be null if the reader returns none
+     */
+    public synchronized Renderable image(String path) {
+        if (images.containsKey(path)) {
+            hits++;
+            return images.get(path);
+        }
+        Renderable image = imageReader.readImage(path, true);
+        reads++;
+        long size = estimateImageBytes(path);
+        images.put(path, image);
+        imageSizes.put(path, size);
+        imageBytes += size;
+        evictOverBudget(path);
+        return image;
+    }
+
+    /**
+     * Return the sound at {@code path}, reading it on first use.
+     *
+     * @param path asset path
+     * @return the shared sound; may be null if the reader returns none
+     */
+    public synchronized Sound sound(String path) {
+        if (sounds.containsKey(path)) {
+            hits++;
+            return sounds.get(path);
+        }
+        Sound sound = soundReader.readSound(path);
+        reads++;
+        sounds.put(path, sound);
+        return sound;
+    }
+
+    /**
+     * Return the length of the sound at {@code path}, reading its header on first use. Nothing
+     * is decoded, and no engine reader is needed.
+     *
+     * @param path asset path
+     * @return length of the sound, in seconds; a short default if the header cannot be read
+     */
+    public synchronized float soundSeconds(String path) {
+        Float seconds = soundSeconds.get(path);
+        if (seconds == null) {
+            seconds = readSoundSeconds(path);
+            soundSeconds.put(path, seconds);
+        }
+        return seconds;
+    }
+
+    /**
+     * Change the image memory budget, evicting images immediately if it is exceeded.
+     *
+     * @param bytes maximum estimated size of all cached images, in bytes
+     */
+    public synchronized void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+        evictOverBudget(null);
+    }
+
+    /**
+     * @return estimated size of all cached images, in bytes
+     */
+    public synchronized long getImageBytes() { return imageBytes; }
+
+    /**
+     * @return number of reads performed through the engine readers
+     */
+    public synchronized int getReads() { return reads; }
+
+    /**
+     * @return number of requests served from the cache
+     */
+    public synchronized int getHits() { return hits; }
+
+    /*====== Helpers =======*/
+    /**
+     * Evict least recently used images until the budget is met. The image at {@code keep}
+     * (the one just requested) is never evicted.
+     */
+    private void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Renderable>> it = images.entrySet().iterator();
+        while (imageBytes > memoryBudget && it.hasNext()) {
+            String path = it.next().getKey();
+            if (path.equals(keep)) continue;
+            imageBytes -= imageSizes.remove(path);
+            it.remove();
+        }
+    }
+
+    /**
+     * Read the length of a sound from its file header. Falls back to a short default when the
+     * header cannot be read or does not give a length.
+     */
+    private static float readSoundSeconds(String path) {
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(new File(path));
+            float frameRate = format.getFormat().getFrameRate();
+            if (format.getFrameLength() > 0 && frameRate > 0) {
+                return format.getFrameLength() / frameRate;
+            }
+        } catch (IOException | UnsupportedAudioFileException e) {
+            // fall through to the default
+        }
+        return DEFAULT_SOUND_SECONDS;
+    }
+
+    /**
+     * Estimate the decoded size of an image from its header, without decoding pixels.
+     * Falls back to the file size when the header cannot be read.
+     */
+    private static long estimateImageBytes(String path) {
+        File file = new File(path);
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in != null) {
+                Iterator<javax.imageio.ImageReader> readers = ImageIO.getImageReaders(in);
+                if (readers.hasNext()) {
+                    javax.imageio.ImageReader reader = readers.next();
+                    try {
+                        reader.setInput(in);
+                        return (long) reader.getWidth(0) * reader.getHeight(0) * BYTES_PER_PIXEL;
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // fall through to the file size
+        }
+        return file.length();
+    }
+}
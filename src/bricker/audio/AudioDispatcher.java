@@ -0,0 +1,101 @@
+package bricker.audio;
+
+import danogl.gui.Sound;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays sounds on a dedicated daemon thread, so opening and starting clips on the audio device
+ * never stalls the game thread. The game thread hands sounds over through a
+ * {@link SpscRingBuffer} and never waits: when the ring is full the sound is dropped and
+ * counted.
+ * <p>
+ * The thread is only started by the first submitted sound, so games whose sounds are all null,
+ * such as headless games, never start one. When idle it parks; {@link #wake()} unparks it, and
+ * it also wakes up on its own after a short timeout, so a wake-up racing with the thread going
+ * to sleep delays a sound by at most that timeout instead of losing it.
+ */
+final class AudioDispatcher implements Runnable {
+    private static final long IDLE_PARK_NANOS = 2_000_000;
+    private static final String THREAD_NAME = "bricker-audio";
+
+    private final SpscRingBuffer<Sound> ring;
+    private volatile boolean sleeping = false;
+    private volatile boolean closed = false;
+    // game-thread state
+    private Thread thread;
+    private long dropped = 0;
+    private boolean submitted = false;
+
+    /**
+     * Construct a dispatcher without a thread.
+     *
+     * @param capacity number of sounds that can wait for the audio thread; a power of two
+     */
+    AudioDispatcher(int capacity) {
+        this.ring = new SpscRingBuffer<>(capacity);
+    }
+
+    /**
+     * Hand a sound to the audio thread, starting it if needed. Game thread only; never blocks.
+     *
+     * @param sound sound to play
+     */
+    void submit(Sound sound) {
+        if (closed) return;
+        if (thread == null) {
+            thread = new Thread(this, THREAD_NAME);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        if (ring.offer(sound)) {
+            submitted = true;
+        } else {
+            dropped++;
+        }
+    }
+
+    /**
+     * Wake the audio thread if sounds were submitted since the last call. Game thread only.
+     */
+    void wake() {
+        if (submitted && sleeping) LockSupport.unpark(thread);
+        submitted = false;
+    }
+
+    /**
+     * Stop the audio thread once it has played the sounds already submitted. Sounds submitted
+     * afterwards are ignored.
+     */
+    void close() {
+        closed = true;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    /**
+     * @return number of sounds dropped because the audio thread fell behind
+     */
+    long getDropped() { return dropped; }
+
+    /**
+     * Audio thread loop: play sounds as they arrive and park while there are none.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            Sound sound = ring.poll();
+            if (sound != null) {
+                try {
+                    sound.play();
+                } catch (RuntimeException e) {
+                    // a clip the device refuses only loses that sound, not the audio thread
+                }
+                continue;
+            }
+            if (closed) return;
+            sleeping = true;
+            if (ring.isEmpty()) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            sleeping = false;
+        }
+    }
+}
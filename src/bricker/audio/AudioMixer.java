@@ -0,0 +1,172 @@
+package bricker.audio;
+
+import bricker.assets.AssetRegistry;
+import danogl.gui.Sound;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-game mixer between the game objects and the audio device. Objects request sounds through
+ * {@link Clip} handles during the frame; nothing is played until {@link #endFrame(float)}, which
+ * plays every requested clip at most once, however many times it was requested in the frame,
+ * and only if fewer than {@code voicesPerClip} instances of it are still playing. A cascade
+ * exploding a hundred bricks in one frame therefore plays the explosion once, and a swarm of
+ * pucks cannot stack up more than a few overlapping collision sounds.
+ * <p>
+ * Voices are tracked on the game clock, advanced by the frame times passed to
+ * {@code endFrame}, using the clip lengths read by the {@link AssetRegistry}. Clips wrap the
+ * registry's decoded sounds and are cached per path, so every object of a game requesting the
+ * same sound shares one clip and one voice budget.
+ * <p>
+ * The mixer runs on the game thread, but the sounds it plays are handed to an
+ * {@link AudioDispatcher}, whose own thread talks to the audio device; the game loop never
+ * waits for it.
+ */
+public class AudioMixer {
+    // sounds waiting for the audio thread; far more than the clips one frame can play
+    private static final int DISPATCH_CAPACITY = 256;
+
+    private final AssetRegistry assets;
+    private final int voicesPerClip;
+    private final Map<String, Clip> clips = new HashMap<>();
+    private final AudioDispatcher dispatcher = new AudioDispatcher(DISPATCH_CAPACITY);
+    // clips requested since the last endFrame, in order of first request
+    private final ArrayList<Clip> requestedClips = new ArrayList<>();
+    private double now = 0;
+
+    private long requested = 0;
+    private long played = 0;
+    private long coalesced = 0;
+    private long voiceLimited = 0;
+
+    /**
+     * A sound of the mixer. Requesting it only marks it for the end of the frame.
+     */
+    public static final class Clip {
+        private final AudioMixer mixer;
+        private final Sound sound;
+        private final float seconds;
+        // game time at which each voice stops playing; a voice is free once its end has passed
+        private final double[] voiceEnds;
+        private int pending = 0;
+
+        private Clip(AudioMixer mixer, Sound sound, float seconds, int voices) {
+            this.mixer = mixer;
+            this.sound = sound;
+            this.seconds = seconds;
+            this.voiceEnds = new double[voices];
+        }
+
+        /**
+         * Request the clip. It is played when the frame ends, once for all the requests of the
+         * frame, if it has a free voice.
+         */
+        public void play() {
+            mixer.requested++;
+            if (pending++ == 0) mixer.requestedClips.add(this);
+        }
+
+        /**
+         * @return length of the clip, in seconds
+         */
+        public float getSeconds() { return seconds; }
+
+        /**
+         * Play the requests of the frame ending at {@code now} on a free voice, if there is one.
+         */
+        private void mix(double now) {
+            mixer.coalesced += pending - 1;
+            pending = 0;
+            for (int voice = 0; voice < voiceEnds.length; voice++) {
+                if (voiceEnds[voice] <= now) {
+                    voiceEnds[voice] = now + seconds;
+                    mixer.played++;
+                    if (sound != null) mixer.dispatcher.submit(sound);
+                    return;
+                }
+            }
+            mixer.voiceLimited++;
+        }
+    }
+
+    /**
+     * Construct a mixer with no clips.
+     *
+     * @param assets registry the sounds and their lengths are read from
+     * @param voicesPerClip largest number of instances of one clip playing at the same time, at
+     *                      least 1
+     */
+    public AudioMixer(AssetRegistry assets, int voicesPerClip) {
+        if (voicesPerClip < 1) {
+            throw new IllegalArgumentException("voicesPerClip must be at least 1: " + voicesPerClip);
+        }
+        this.assets = assets;
+        this.voicesPerClip = voicesPerClip;
+    }
+
+    /**
+     * Return the clip of the sound at {@code path}, creating it on first request.
+     *
+     * @param path asset path of the sound
+     * @return the mixer's clip for {@code path}
+     */
+    public Clip clip(String path) {
+        Clip clip = clips.get(path);
+        if (clip == null) {
+            clip = new Clip(this, assets.sound(path), assets.soundSeconds(path), voicesPerClip);
+            clips.put(path, clip);
+        }
+        return clip;
+    }
+
+    /**
+     * End the frame: advance the game clock and hand every clip requested during the frame to
+     * the audio thread.
+     *
+     * @param deltaTime length of the frame, in seconds
+     */
+    public void endFrame(float deltaTime) {
+        now += deltaTime;
+        for (int i = 0; i < requestedClips.size(); i++) {
+            requestedClips.get(i).mix(now);
+        }
+        requestedClips.clear();
+        dispatcher.wake();
+    }
+
+    /**
+     * Stop the mixer's audio thread, if it was started, once it has played the sounds already
+     * handed to it. The mixer plays nothing afterwards.
+     */
+    public void close() {
+        dispatcher.close();
+    }
+
+    /**
+     * @return number of sound requests so far
+     */
+    public long getRequested() { return requested; }
+
+    /**
+     * @return number of sounds played so far
+     */
+    public long getPlayed() { return played; }
+
+    /**
+     * @return number of requests merged into another request of the same clip in the same frame
+     */
+    public long getCoalesced() { return coalesced; }
+
+    /**
+     * @return number of frames in which a requested clip was not played because all its voices
+     *         were busy
+     */
+    public long getVoiceLimited() { return voiceLimited; }
+
+    /**
+     * @return number of played sounds dropped because the audio thread fell behind
+     */
+    public long getDispatchDropped() { return dispatcher.getDropped(); }
+}
@@ -0,0 +1,84 @@
+package bricker.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread. Neither
+ * side ever blocks: {@link #offer} fails when the ring is full and {@link #poll} returns null
+ * when it is empty.
+ * <p>
+ * Each side owns one index and only publishes it with an ordered write, which makes the slot
+ * written (or cleared) before it visible to the other side. Each side also caches the other
+ * side's index and only reads it again when the cached value says the ring is full (or empty),
+ * so in steady state offers and polls do not touch the other side's cache line.
+ *
+ * @param <E> type of the elements
+ */
+final class SpscRingBuffer<E> {
+    private final Object[] slots;
+    private final int mask;
+    // index of the next slot to read; written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // index of the next slot to write; written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+    // producer's last read of head
+    private long cachedHead = 0;
+    // consumer's last read of tail
+    private long cachedTail = 0;
+
+    /**
+     * Construct an empty ring.
+     *
+     * @param capacity number of slots; a power of two
+     */
+    SpscRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Append an element. Producer thread only.
+     *
+     * @param element element to append, not null
+     * @return false, leaving the ring unchanged, if the ring is full
+     */
+    boolean offer(E element) {
+        long t = tail.get();
+        if (t - cachedHead >= slots.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= slots.length) return false;
+        }
+        slots[(int) t & mask] = element;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element. Consumer thread only.
+     *
+     * @return the oldest element, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) return null;
+        }
+        int index = (int) h & mask;
+        E element = (E) slots[index];
+        slots[index] = null;
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * @return true if the ring holds no element; exact only on the consumer thread
+     */
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+}
@@ -0,0 +1,71 @@
+package bricker.audio;
+
+/**
+ * Headless check that a {@link SpscRingBuffer} hands its elements over in order, including
+ * across the wrap-around of its indices. On one thread, a small ring is filled, must refuse one
+ * more element, and is drained and refilled with varying counts so its slots are reused many
+ * times; then a producer thread pushes a long sequence through the same small ring while the
+ * consumer thread checks that every number arrives exactly once and in order.
+ * <p>
+ * Exits with status 1 on the first element out of place.
+ */
+public class SpscRingBufferCheck {
+    private static final int CAPACITY = 8;
+    private static final int ROUNDS = 10_000;
+    private static final int ELEMENTS = 1_000_000;
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     * @throws InterruptedException if interrupted while waiting for the producer thread
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(CAPACITY);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            // alternate full rings with partial batches, so head and tail meet every slot
+            int batch = round % 2 == 0 ? CAPACITY : 1 + round % CAPACITY;
+            for (int i = 0; i < batch; i++) {
+                if (!ring.offer(next++)) fail("offer refused on a ring with free slots");
+            }
+            if (batch == CAPACITY && ring.offer(-1)) fail("offer accepted on a full ring");
+            for (int i = 0; i < batch; i++) {
+                Integer element = ring.poll();
+                if (element == null || element != expected) {
+                    fail("polled " + element + " instead of " + expected);
+                }
+                expected++;
+            }
+            if (!ring.isEmpty() || ring.poll() != null) fail("a drained ring is not empty");
+        }
+        System.out.printf("%d elements through %d slots on one thread, in order%n",
+                expected, CAPACITY);
+
+        // both sides yield rather than spin, so the check also finishes on a single core
+        SpscRingBuffer<Integer> shared = new SpscRingBuffer<>(CAPACITY);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < ELEMENTS; i++) {
+                while (!shared.offer(i)) Thread.yield();
+            }
+        }, "ring-producer");
+        producer.start();
+        for (int i = 0; i < ELEMENTS; i++) {
+            Integer element;
+            while ((element = shared.poll()) == null) Thread.yield();
+            if (element != i) fail("polled " + element + " instead of " + i + " across threads");
+        }
+        producer.join();
+        if (!shared.isEmpty()) fail("elements left after the producer finished");
+        System.out.printf("%d elements through %d slots across two threads, in order%n",
+                ELEMENTS, CAPACITY);
+        System.out.println("OK");
+    }
+
+    /*====== Helpers =======*/
+    private static void fail(String message) {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,346 @@
+package bricker.benchmarks;
+
+import bricker.assets.AssetRegistry;
+import bricker.brick_strategies.BasicCollisionStrategy;
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.ExplodingBrickStrategy;
+import bricker.brick_strategies.ExplosionCascade;
+import bricker.brick_strategies.NoOpCollisionStrategy;
+import bricker.brick_strategies.StrategyFactory;
+import bricker.brick_strategies.StrategyTable;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.CollisionWorld;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.MutationQueue;
+import bricker.gameobjects.PuckManager;
+import bricker.levels.Level;
+import bricker.levels.LevelFile;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessSimulation;
+import bricker.util.GameRandom;
+import danogl.GameObject;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Micro-benchmarks for the brick grid and the strategy layer, run over several grid sizes.
+ * Each benchmark is warmed up and then timed over a fixed number of iterations; the average
+ * cost per operation is printed. All games are built with {@link HeadlessSimulation}, so no
+ * window, image or sound is ever opened.
+ */
+public class BrickerBenchmarks {
+    private static final String DEFAULT_GRIDS = "8x7,100x50,1000x200";
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int STRATEGIES_PER_ITERATION = 10_000;
+    private static final int DISPATCHES_PER_ITERATION = 1_000_000;
+    private static final int HITS_PER_ITERATION = 10_000;
+    private static final int DISPATCH_COLS = 100;
+    private static final int DISPATCH_ROWS = 50;
+    private static final StrategyFactory.StrategyType[] ALL_SPECIALS = {
+            StrategyFactory.StrategyType.ADDITIONAL_BALLS,
+            StrategyFactory.StrategyType.EXTRA_PADDLE,
+            StrategyFactory.StrategyType.EXPLODING_BRICKS,
+            StrategyFactory.StrategyType.RETURN_LIFE
+    };
+    // specials whose effects do nothing once the dispatch benchmark's field is cleared
+    private static final StrategyFactory.StrategyType[] EFFECTLESS_SPECIALS = {
+            StrategyFactory.StrategyType.EXTRA_PADDLE,
+            StrategyFactory.StrategyType.EXPLODING_BRICKS
+    };
+    private static final int PUCKS = 1_000;
+    private static final float TIMESTEP = 1f / 60f;
+    private static final long SEED = 42;
+    private static final float PUCK_SIZE = 26f;
+    private static final float PUCK_SPEED = 250f;
+    private static final Vector2 WINDOW = new Vector2(1000, 700);
+    private static final Vector2 BRICK_SIZE = new Vector2(10, 15);
+    private static final Vector2 PADDLE_SIZE = new Vector2(150, 20);
+
+    /**
+     * A single timed operation. Returns a value derived from its work so the JIT cannot
+     * discard it.
+     */
+    private interface Operation {
+        /**
+         * Perform one benchmark iteration.
+         *
+         * @return a value that depends on the work done
+         */
+        long run();
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args optional comma-separated grid sizes, e.g. {@code 8x7,100x50,1000x200}
+     */
+    public static void main(String[] args) {
+        String grids = args != null && args.length >= 1 ? args[0] : DEFAULT_GRIDS;
+        for (String grid : grids.split(",")) {
+            String[] parts = grid.trim().split("x");
+            int cols = Integer.parseInt(parts[0]);
+            int rows = Integer.parseInt(parts[1]);
+            runGrid(cols, rows);
+        }
+        HeadlessSimulation simulation = new HeadlessSimulation(8, 7, WINDOW, TIMESTEP, true);
+        measure("combinedDispatch", DISPATCHES_PER_ITERATION, combinedDispatch());
+        measure("brickDispatch[combined]", HITS_PER_ITERATION,
+                brickDispatch(simulation, false, ALL_SPECIALS));
+        measure("brickDispatch[compiled]", HITS_PER_ITERATION,
+                brickDispatch(simulation, true, ALL_SPECIALS));
+        measure("brickDispatch[combined,no effects]", HITS_PER_ITERATION,
+                brickDispatch(simulation, false, EFFECTLESS_SPECIALS));
+        measure("brickDispatch[compiled,no effects]", HITS_PER_ITERATION,
+                brickDispatch(simulation, true, EFFECTLESS_SPECIALS));
+        measure("puckUpdate", PUCKS, puckUpdate(simulation));
+    }
+
+    /**
+     * Run every grid-size dependent benchmark for one grid size.
+     */
+    private static void runGrid(int cols, int rows) {
+        String suffix = "[" + cols + "x" + rows + "]";
+        HeadlessSimulation simulation = new HeadlessSimulation(cols, rows, WINDOW, TIMESTEP, true);
+        measure("spawnBrick" + suffix, 1, () -> simulation.newGame().hashCode());
+        measure("createRandomSpecialStrategy" + suffix, STRATEGIES_PER_ITERATION,
+                createRandomSpecialStrategy(simulation, cols, rows));
+        measure("internedSpecialStrategy" + suffix, STRATEGIES_PER_ITERATION,
+                internedSpecialStrategy(simulation, cols, rows));
+        measure("explodingChain" + suffix, (long) cols * rows, explodingChain(cols, rows));
+
+        Path levelFile = writeRandomLevel(cols, rows);
+        try {
+            measure("loadLevel" + suffix, 1, () -> LevelFile.load(levelFile).getBrickCount());
+            HeadlessSimulation levelSimulation =
+                    new HeadlessSimulation(cols, rows, WINDOW, TIMESTEP, true);
+            levelSimulation.setLevel(LevelFile.load(levelFile));
+            measure("spawnLevel" + suffix, 1, () -> levelSimulation.newGame().hashCode());
+        } finally {
+            try {
+                Files.deleteIfExists(levelFile);
+            } catch (IOException e) {
+                levelFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Time {@code operation} and print the average cost of one of its {@code opsPerIteration}
+     * inner operations.
+     */
+    private static void measure(String name, long opsPerIteration, Operation operation) {
+        long sink = 0;
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) sink += operation.run();
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) sink += operation.run();
+            long elapsed = System.nanoTime() - start;
+            double nanosPerOp = (double) elapsed / MEASURED_ITERATIONS / opsPerIteration;
+            System.out.printf("%-45s %14.1f ns/op  (sink %d)%n", name, nanosPerOp, sink);
+        } catch (StackOverflowError e) {
+            System.out.printf("%-45s %14s%n", name, "StackOverflowError");
+        }
+    }
+
+    /*====== Benchmarks =======*/
+    /**
+     * Build {@link #STRATEGIES_PER_ITERATION} random special strategies.
+     */
+    private static Operation createRandomSpecialStrategy(HeadlessSimulation simulation,
+                                                         int cols, int rows) {
+        BrickerGameManager game = simulation.newGame();
+        MutationQueue mutations = new MutationQueue(game.gameObjects());
+        Counter bricksLeft = new Counter(cols * rows);
+        Counter extraPaddles = new Counter(0);
+        CollisionStrategy basic = new BasicCollisionStrategy(bricksLeft);
+        ExplosionCascade cascade = new ExplosionCascade(newField(cols, rows));
+        GameObject paddle = new GameObject(Vector2.ZERO, PADDLE_SIZE, null);
+        FallingHeart.LifeRestoreCallback callback = game::restoreLife;
+        PuckManager pucks = newPuckManager(mutations);
+        GameRandom rand = new GameRandom(SEED);
+        return () -> {
+            long sink = 0;
+            for (int i = 0; i < STRATEGIES_PER_ITERATION; i++) {
+                CollisionStrategy s = NestedStrategyFactory.createRandomSpecialStrategy(
+                        basic, mutations, AssetRegistry.getInstance(), null, WINDOW, pucks,
+                        PADDLE_SIZE, null, simulation.getInputListener(), bricksLeft, extraPaddles,
+                        cascade, paddle, callback, rand);
+                sink += System.identityHashCode(s);
+            }
+            return sink;
+        };
+    }
+
+    /**
+     * Look up {@link #STRATEGIES_PER_ITERATION} random special strategies in a
+     * {@link StrategyTable}, which shares one strategy per combination.
+     */
+    private static Operation internedSpecialStrategy(HeadlessSimulation simulation,
+                                                     int cols, int rows) {
+        BrickerGameManager game = simulation.newGame();
+        MutationQueue mutations = new MutationQueue(game.gameObjects());
+        Counter bricksLeft = new Counter(cols * rows);
+        StrategyTable table = new StrategyTable(
+                new BasicCollisionStrategy(bricksLeft), mutations, AssetRegistry.getInstance(),
+                null, WINDOW, newPuckManager(mutations), PADDLE_SIZE, null, simulation.getInputListener(),
+                bricksLeft, new Counter(0), new ExplosionCascade(newField(cols, rows)),
+                new GameObject(Vector2.ZERO, PADDLE_SIZE, null), game::restoreLife);
+        GameRandom rand = new GameRandom(SEED);
+        return () -> {
+            long sink = 0;
+            for (int i = 0; i < STRATEGIES_PER_ITERATION; i++) {
+                sink += System.identityHashCode(table.getRandomSpecial(rand));
+            }
+            return sink;
+        };
+    }
+
+    /**
+     * Fill a grid with exploding bricks and hit the top-left one, so the explosion
+     * propagates through every cell.
+     */
+    private static Operation explodingChain(int cols, int rows) {
+        GameObject hitter = new GameObject(Vector2.ZERO, BRICK_SIZE, null);
+        return () -> {
+            Counter bricksLeft = new Counter(cols * rows);
+            BrickField field = newField(cols, rows);
+            CollisionStrategy exploding = new ExplodingBrickStrategy(
+                    new BasicCollisionStrategy(bricksLeft),
+                    null, new ExplosionCascade(field));
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    field.set(row, col, exploding);
+                }
+            }
+            field.claim(0, 0);
+            field.strike(0, 0, hitter);
+            return bricksLeft.value();
+        };
+    }
+
+    /**
+     * Dispatch through a {@link CombinedCollisionStrategy} holding three specials.
+     */
+    private static Operation combinedDispatch() {
+        CollisionStrategy noop = new NoOpCollisionStrategy();
+        CollisionStrategy combined = new CombinedCollisionStrategy(
+                noop, new CollisionStrategy[] { noop, noop, noop }, 3);
+        GameObject brick = new GameObject(Vector2.ZERO, BRICK_SIZE, null);
+        return () -> {
+            for (int i = 0; i < DISPATCHES_PER_ITERATION; i++) {
+                combined.onCollision(brick, brick);
+            }
+            return DISPATCHES_PER_ITERATION;
+        };
+    }
+
+    /**
+     * Hit {@link #HITS_PER_ITERATION} bricks whose strategies combine two or three random
+     * specials of {@code types}, either built as {@link CombinedCollisionStrategy} trees by
+     * {@link NestedStrategyFactory} or compiled and shared by a {@link StrategyTable}. The effects
+     * really run, but the first hits clear the field: explosions then find no neighbors, and an
+     * extra paddle is always present, so those two types leave only the dispatch to compare.
+     */
+    private static Operation brickDispatch(HeadlessSimulation simulation, boolean compiled,
+                                           StrategyFactory.StrategyType... types) {
+        BrickerGameManager game = simulation.newGame();
+        MutationQueue mutations = new MutationQueue(game.gameObjects());
+        Counter bricksLeft = new Counter(DISPATCH_COLS * DISPATCH_ROWS);
+        Counter extraPaddles = new Counter(1);
+        CollisionStrategy basic = new BasicCollisionStrategy(bricksLeft);
+        BrickField field = newField(DISPATCH_COLS, DISPATCH_ROWS);
+        ExplosionCascade cascade = new ExplosionCascade(field);
+        GameObject paddle = new GameObject(Vector2.ZERO, PADDLE_SIZE, null);
+        FallingHeart.LifeRestoreCallback callback = game::restoreLife;
+        // room for every puck of an iteration, so pucks are recycled rather than allocated
+        PuckManager pucks = new PuckManager(2 * HITS_PER_ITERATION, new Vector2(PUCK_SIZE, PUCK_SIZE),
+                null, null, mutations, new CollisionWorld(), new GameRandom(SEED), WINDOW,
+                PUCK_SPEED);
+        StrategyTable table = new StrategyTable(basic, mutations, AssetRegistry.getInstance(),
+                null, WINDOW, pucks, PADDLE_SIZE, null, simulation.getInputListener(), bricksLeft,
+                extraPaddles, cascade, paddle, callback);
+        GameRandom rand = new GameRandom(SEED);
+        StrategyFactory.StrategyType[] specials =
+                new StrategyFactory.StrategyType[StrategyFactory.MAX_SPECIALS];
+        for (int row = 0; row < DISPATCH_ROWS; row++) {
+            for (int col = 0; col < DISPATCH_COLS; col++) {
+                int count = 2 + rand.nextInt(StrategyFactory.MAX_SPECIALS - 1);
+                for (int i = 0; i < count; i++) specials[i] = types[rand.nextInt(types.length)];
+                field.set(row, col, compiled ? table.get(Level.encode(specials, count))
+                        : NestedStrategyFactory.createCombinedStrategy(specials, count,
+                                basic, mutations, AssetRegistry.getInstance(), null, WINDOW, pucks,
+                                PADDLE_SIZE, null, simulation.getInputListener(), bricksLeft,
+                                extraPaddles, cascade, paddle, callback));
+            }
+        }
+        Brick[] bricks = new Brick[DISPATCH_COLS * DISPATCH_ROWS];
+        for (int i = 0; i < bricks.length; i++) {
+            bricks[i] = field.materialize(i / DISPATCH_COLS, i % DISPATCH_COLS);
+        }
+        GameObject hitter = new GameObject(Vector2.ZERO, BRICK_SIZE, null);
+        int[] next = new int[1];
+        return () -> {
+            for (int i = 0; i < HITS_PER_ITERATION; i++) {
+                bricks[next[0]].onCollisionEnter(hitter, null);
+                next[0] = (next[0] + 1) % bricks.length;
+            }
+            long spawned = mutations.getAddCount();
+            while (pucks.getLive() > 0) pucks.release(pucks.getLivePuck(0));
+            mutations.flush();
+            return spawned;
+        };
+    }
+
+    /**
+     * Advance {@link #PUCKS} pucks by one frame each, in the manager's update loop. Without
+     * walls the pucks fly up forever, so none is released.
+     */
+    private static Operation puckUpdate(HeadlessSimulation simulation) {
+        MutationQueue mutations = new MutationQueue(simulation.newGame().gameObjects());
+        PuckManager pucks = newPuckManager(mutations);
+        Vector2 center = WINDOW.mult(0.5f);
+        for (int i = 0; i < PUCKS; i++) {
+            pucks.spawn(center);
+        }
+        mutations.flush();
+        return () -> {
+            pucks.update(TIMESTEP);
+            return pucks.getLive();
+        };
+    }
+
+    /**
+     * Write a random binary level to a temporary file.
+     */
+    private static Path writeRandomLevel(int cols, int rows) {
+        try {
+            Path file = Files.createTempFile("bricker-level-", ".brkl");
+            LevelFile.save(Level.random(cols, rows, new GameRandom(SEED)), file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create an empty brick field without a renderable.
+     */
+    private static BrickField newField(int cols, int rows) {
+        return new BrickField(rows, cols, 0, 0, BRICK_SIZE.x(), BRICK_SIZE.y(), 0, 0, null);
+    }
+
+    /**
+     * Create a puck manager without renderables, sounds or live budget.
+     */
+    private static PuckManager newPuckManager(MutationQueue mutations) {
+        return new PuckManager(PUCKS, new Vector2(PUCK_SIZE, PUCK_SIZE), null, null, mutations,
+                new CollisionWorld(), new GameRandom(SEED), WINDOW, PUCK_SPEED);
+    }
+}
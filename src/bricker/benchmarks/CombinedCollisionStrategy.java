@@ -1,12 +1,13 @@
-package bricker.brick_strategies;
+package bricker.benchmarks;
 
+import bricker.brick_strategies.CollisionStrategy;
 import danogl.GameObject;
 
 /**
  * A combined collision strategy that executes a base strategy once
  * and then executes an array of special strategies
  */
-public class CombinedCollisionStrategy implements CollisionStrategy {
+class CombinedCollisionStrategy implements CollisionStrategy {
     private final CollisionStrategy base;
     private final CollisionStrategy[] specials;
     private final int specialsCount;
@@ -19,9 +20,9 @@ public class CombinedCollisionStrategy implements CollisionStrategy {
      *                 {@code specialsCount} in the array are ignored.
      * @param specialsCount Number of entries in {@code specials} that are valid (0..specials.length).
      */
-    public CombinedCollisionStrategy(CollisionStrategy base,
-                                     CollisionStrategy[] specials,
-                                     int specialsCount) {
+    CombinedCollisionStrategy(CollisionStrategy base,
+                              CollisionStrategy[] specials,
+                              int specialsCount) {
         this.base = base;
         this.specials = specials;
         this.specialsCount = specialsCount;
@@ -42,4 +43,19 @@ public class CombinedCollisionStrategy implements CollisionStrategy {
             if (s != null) s.onCollision(objA, objB);
         }
     }
+
+    /**
+     * @return the names of the special strategies joined by {@code +}, e.g.
+     *         {@code "AdditionalBalls+ReturnLife"}
+     */
+    @Override
+    public String getName() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < specialsCount; i++) {
+            if (specials[i] == null) continue;
+            if (name.length() > 0) name.append('+');
+            name.append(specials[i].getName());
+        }
+        return name.length() == 0 ? base.getName() : name.toString();
+    }
 }
@@ -0,0 +1,201 @@
+package bricker.benchmarks;
+
+import bricker.assets.AssetRegistry;
+import bricker.audio.AudioMixer;
+import bricker.brick_strategies.AdditionalBallsStrategy;
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.ExplodingBrickStrategy;
+import bricker.brick_strategies.ExplosionCascade;
+import bricker.brick_strategies.ExtraPaddleStrategy;
+import bricker.brick_strategies.NoOpCollisionStrategy;
+import bricker.brick_strategies.ReturnLifeStrategy;
+import bricker.brick_strategies.StrategyFactory;
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+import bricker.brick_strategies.StrategyTable;
+import bricker.gameobjects.MutationQueue;
+import bricker.gameobjects.PuckManager;
+import bricker.util.GameRandom;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.gui.UserInputListener;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+/**
+ * Builds special combinations the way the game did before {@link StrategyTable}: a new tree of
+ * decorators per brick, each traced and held by a {@link CombinedCollisionStrategy}. The game no
+ * longer uses it; it is kept here only as the baseline the benchmarks compare the compiled,
+ * shared strategies against, so the gain of the table stays measurable.
+ */
+final class NestedStrategyFactory {
+    private NestedStrategyFactory() { }
+
+    /**
+     * Create a CollisionStrategy of the requested type.
+     * The supplied {@code baseStrategy} will be used as the strategy's base. For decorated
+     * strategies that should not remove the brick, pass a {@link NoOpCollisionStrategy} as base.
+     *
+     * @param type requested strategy type
+     * @param baseStrategy base strategy for removal or passed-through
+     * @param mutations frame-deferred queue for adding/removing objects
+     * @param assets shared asset registry for images
+     * @param audio the game's audio mixer, or null for silent strategies
+     * @param windowDimensions current window dimensions
+     * @param pucks manager spawning the pucks of additional-balls bricks
+     * @param paddleSize paddle dimensions
+     * @param paddleRenderable renderable for paddles
+     * @param inputListener user input listener
+     * @param bricksLeft counter tracking remaining bricks
+     * @param extraPaddles the game's count of present extra paddles
+     * @param cascade explosion worklist shared by exploding bricks
+     * @param originalPaddle reference to the original paddle
+     * @param lifeRestoreCallback callback invoked by falling hearts to restore lives
+     * @return constructed CollisionStrategy instance
+     */
+    static CollisionStrategy createStrategy(StrategyType type,
+                                            CollisionStrategy baseStrategy,
+                                            MutationQueue mutations,
+                                            AssetRegistry assets,
+                                            AudioMixer audio,
+                                            Vector2 windowDimensions,
+                                            PuckManager pucks,
+                                            Vector2 paddleSize,
+                                            Renderable paddleRenderable,
+                                            UserInputListener inputListener,
+                                            Counter bricksLeft,
+                                            Counter extraPaddles,
+                                            ExplosionCascade cascade,
+                                            GameObject originalPaddle,
+                                            bricker.gameobjects.FallingHeart.LifeRestoreCallback
+                                                    lifeRestoreCallback) {
+        switch (type) {
+            case ADDITIONAL_BALLS:
+                return new AdditionalBallsStrategy(baseStrategy, pucks);
+            case EXTRA_PADDLE:
+                return new ExtraPaddleStrategy(mutations, windowDimensions, paddleRenderable,
+                        inputListener, paddleSize, bricksLeft, extraPaddles);
+            case EXPLODING_BRICKS:
+                return new ExplodingBrickStrategy(baseStrategy, audio, cascade);
+            case RETURN_LIFE:
+                return new ReturnLifeStrategy(baseStrategy, mutations, assets, windowDimensions,
+                        originalPaddle, lifeRestoreCallback);
+            case BASIC:
+            default:
+                return baseStrategy;
+        }
+    }
+
+    /**
+     * Create a combined CollisionStrategy by randomly selecting special behaviors
+     * The constructed returned strategy will:
+     *  - execute {@code realBase} once (removing the brick and decrementing {@code bricksLeft}), and
+     *  - execute each of the randomly-chosen special strategies.
+     * Inner special strategies are created with a {@link NoOpCollisionStrategy} base so they do not
+     * attempt to remove the brick again.
+     * Every call builds a new strategy; a game shares one per combination through a
+     * {@link StrategyTable} instead.
+     *
+     * @param realBase the base strategy to execute
+     * @param mutations frame-deferred mutation queue
+     * @param assets shared asset registry
+     * @param audio the game's audio mixer, or null for silent strategies
+     * @param windowDimensions window size
+     * @param pucks puck manager
+     * @param paddleSize paddle size
+     * @param paddleRenderable paddle renderable
+     * @param inputListener user input listener
+     * @param bricksLeft bricks-left counter
+     * @param extraPaddles the game's count of present extra paddles
+     * @param cascade explosion worklist for exploding behavior
+     * @param originalPaddle original paddle reference
+     * @param lifeRestoreCallback life restore callback
+     * @param rand source of randomness
+     * @return a CollisionStrategy executing base once then the randomly chosen specials
+     */
+    static CollisionStrategy createRandomSpecialStrategy(CollisionStrategy realBase,
+                                                          MutationQueue mutations,
+                                                          AssetRegistry assets,
+                                                          AudioMixer audio,
+                                                          Vector2 windowDimensions,
+                                                          PuckManager pucks,
+                                                          Vector2 paddleSize,
+                                                          Renderable paddleRenderable,
+                                                          UserInputListener inputListener,
+                                                          Counter bricksLeft,
+                                                          Counter extraPaddles,
+                                                          ExplosionCascade cascade,
+                                                          GameObject originalPaddle,
+                                                         bricker.gameobjects.
+                                                                 FallingHeart.
+                                                                 LifeRestoreCallback
+                                                                 lifeRestoreCallback,
+                                                          GameRandom rand) {
+        StrategyType[] drawn = new StrategyType[StrategyFactory.MAX_SPECIALS];
+        int drawnCount = StrategyFactory.drawSpecialTypes(rand, drawn);
+        return createCombinedStrategy(drawn, drawnCount, realBase, mutations, assets, audio,
+                windowDimensions, pucks, paddleSize, paddleRenderable, inputListener,
+                bricksLeft, extraPaddles, cascade, originalPaddle, lifeRestoreCallback);
+    }
+
+    /**
+     * Create a CollisionStrategy that executes {@code realBase} once and then the given special
+     * behaviors, in order. Inner special strategies are created with a
+     * {@link NoOpCollisionStrategy} base so they do not attempt to remove the brick again.
+     *
+     * @param specials special types to combine; DOUBLE is not allowed here
+     * @param specialsCount number of valid entries in {@code specials}
+     * @param realBase the base strategy to execute
+     * @param mutations frame-deferred mutation queue
+     * @param assets shared asset registry
+     * @param audio the game's audio mixer, or null for silent strategies
+     * @param windowDimensions window size
+     * @param pucks puck manager
+     * @param paddleSize paddle size
+     * @param paddleRenderable paddle renderable
+     * @param inputListener user input listener
+     * @param bricksLeft bricks-left counter
+     * @param extraPaddles the game's count of present extra paddles
+     * @param cascade explosion worklist for exploding behavior
+     * @param originalPaddle original paddle reference
+     * @param lifeRestoreCallback life restore callback
+     * @return {@code realBase} itself if there are no specials, otherwise a combined strategy
+     */
+    static CollisionStrategy createCombinedStrategy(StrategyType[] specials,
+                                                     int specialsCount,
+                                                     CollisionStrategy realBase,
+                                                     MutationQueue mutations,
+                                                     AssetRegistry assets,
+                                                     AudioMixer audio,
+                                                     Vector2 windowDimensions,
+                                                     PuckManager pucks,
+                                                     Vector2 paddleSize,
+                                                     Renderable paddleRenderable,
+                                                     UserInputListener inputListener,
+                                                     Counter bricksLeft,
+                                                     Counter extraPaddles,
+                                                     ExplosionCascade cascade,
+                                                     GameObject originalPaddle,
+                                                     bricker.gameobjects.
+                                                             FallingHeart.
+                                                             LifeRestoreCallback
+                                                             lifeRestoreCallback) {
+        if (specialsCount == 0) return realBase;
+
+        // Build special strategy instances using a NoOp base so they won't remove the brick.
+        NoOpCollisionStrategy noop = new NoOpCollisionStrategy();
+        CollisionStrategy[] built = new CollisionStrategy[specialsCount];
+        for (int i = 0; i < specialsCount; i++) {
+            StrategyType t = specials[i];
+            CollisionStrategy s = createStrategy(t, noop, mutations, assets, audio,
+                    windowDimensions, pucks, paddleSize, paddleRenderable, inputListener,
+                    bricksLeft, extraPaddles, cascade, originalPaddle, lifeRestoreCallback);
+            // traced so Flight Recorder shows which part of a combination was slow
+            built[i] = new TracedCollisionStrategy(s, t, i + 1, mutations);
+        }
+
+        // Return a CombinedCollisionStrategy (base once and then specials)
+        CollisionStrategy tracedBase =
+                new TracedCollisionStrategy(realBase, StrategyType.BASIC, 0, mutations);
+        return new CombinedCollisionStrategy(tracedBase, built, specialsCount);
+    }
+}
@@ -0,0 +1,75 @@
+package bricker.benchmarks;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.StrategyFactory;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.MutationQueue;
+import bricker.metrics.StrategyExecutionEvent;
+import danogl.GameObject;
+
+/**
+ * Wraps a strategy so every execution is recorded as a {@link StrategyExecutionEvent} for Java
+ * Flight Recorder. When the event is disabled (the default, without a recording) the wrapper
+ * only adds one check to the call.
+ */
+class TracedCollisionStrategy implements CollisionStrategy {
+    private final CollisionStrategy strategy;
+    private final StrategyFactory.StrategyType type;
+    private final int position;
+    private final MutationQueue mutations;
+
+    /**
+     * Construct a traced strategy.
+     *
+     * @param strategy the strategy to run
+     * @param type the type recorded in the events
+     * @param position 0 for the base strategy of a brick, n for its n-th special behavior
+     * @param mutations queue whose additions are counted as spawned objects
+     */
+    TracedCollisionStrategy(CollisionStrategy strategy,
+                            StrategyFactory.StrategyType type,
+                            int position,
+                            MutationQueue mutations) {
+        this.strategy = strategy;
+        this.type = type;
+        this.position = position;
+        this.mutations = mutations;
+    }
+
+    /**
+     * Run the wrapped strategy inside a {@link StrategyExecutionEvent}.
+     *
+     * @param objA The brick.
+     * @param objB The colliding object (ball or puck).
+     */
+    @Override
+    public void onCollision(GameObject objA, GameObject objB) {
+        StrategyExecutionEvent event = new StrategyExecutionEvent();
+        if (!event.isEnabled()) {
+            strategy.onCollision(objA, objB);
+            return;
+        }
+        long addsBefore = mutations.getAddCount();
+        event.begin();
+        strategy.onCollision(objA, objB);
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategyType = type.name();
+            event.position = position;
+            event.spawned = mutations.getAddCount() - addsBefore;
+            if (objA instanceof Brick) {
+                event.row = ((Brick) objA).getRow();
+                event.col = ((Brick) objA).getCol();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the name of the wrapped strategy
+     */
+    @Override
+    public String getName() {
+        return strategy.getName();
+    }
+}
@@ -1,8 +1,7 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.Brick;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
 import danogl.util.Counter;
 
 /**
@@ -10,30 +9,28 @@ import danogl.util.Counter;
  * provided bricks counter.
  */
 public class BasicCollisionStrategy implements CollisionStrategy {
-    private final GameObjectCollection collection;
     private final Counter bricksLeft;
 
     /**
      * Construct a BasicCollisionStrategy.
      *
-     * @param collection the game object collection to remove bricks from
      * @param bricksLeft counter tracking remaining bricks
      */
-    public BasicCollisionStrategy(GameObjectCollection collection, Counter bricksLeft) {
-        this.collection = collection;
+    public BasicCollisionStrategy(Counter bricksLeft) {
         this.bricksLeft = bricksLeft;
     }
 
     /**
-     * Remove the brick from the static objects layer and decrement {@code bricksLeft}
-     * if the removal was successful.
+     * Remove the brick from the brick field and decrement {@code bricksLeft}
+     * unless the brick was already removed.
      *
      * @param objA the brick to remove
      * @param objB the object that hit the brick
      */
     @Override
     public void onCollision(GameObject objA, GameObject objB) {
-        boolean removed = collection.removeGameObject(objA, Layer.STATIC_OBJECTS);
+        if (!(objA instanceof Brick)) return;
+        boolean removed = ((Brick) objA).remove();
         if (removed) {
             this.bricksLeft.decrement();
         }
@@ -15,4 +15,19 @@ public interface CollisionStrategy {
      * @param objB The colliding object (ball or puck).
      */
     void onCollision(GameObject objA, GameObject objB);
+
+    /**
+     * Short name of this behavior, used to label metrics. Defaults to the class name without
+     * its {@code CollisionStrategy} or {@code Strategy} suffix.
+     *
+     * @return the name, e.g. {@code "ExplodingBrick"}
+     */
+    default String getName() {
+        String name = getClass().getSimpleName();
+        if (name.endsWith("CollisionStrategy")) {
+            return name.substring(0, name.length() - "CollisionStrategy".length());
+        }
+        if (name.endsWith("Strategy")) return name.substring(0, name.length() - "Strategy".length());
+        return name;
+    }
 }
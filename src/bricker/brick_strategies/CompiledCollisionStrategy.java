@@ -0,0 +1,190 @@
+package bricker.brick_strategies;
+
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.MutationQueue;
+import bricker.metrics.StrategyExecutionEvent;
+import danogl.GameObject;
+
+/**
+ * A special combination compiled into one flat handler. Instead of a combined strategy walking
+ * an array of decorators that each call their own base, the combination is a program of up to
+ * {@link StrategyFactory#MAX_SPECIALS} operations packed three bits each, in execution order.
+ * Every operation calls the effect of one special behavior directly on its concrete class, so no
+ * call site on the hit path is megamorphic and the JIT can inline the whole combination.
+ * <p>
+ * Handlers are created and shared per combination by a {@link StrategyTable}, which also builds
+ * the behaviors the first time an operation needs them. When Flight Recorder is recording
+ * strategy events, the base and every operation are recorded separately, as the traced
+ * combinations did.
+ */
+public final class CompiledCollisionStrategy implements CollisionStrategy {
+    private static final int OP_BITS = 3;
+    private static final int OP_MASK = (1 << OP_BITS) - 1;
+    private static final int OP_PUCKS = 1;
+    private static final int OP_PADDLE = 2;
+    private static final int OP_EXPLODE = 3;
+    private static final int OP_HEART = 4;
+    // special type of every operation code; code 0 ends a program
+    private static final StrategyType[] TYPE_OF_OP = new StrategyType[] {
+            null,
+            StrategyType.ADDITIONAL_BALLS,
+            StrategyType.EXTRA_PADDLE,
+            StrategyType.EXPLODING_BRICKS,
+            StrategyType.RETURN_LIFE
+    };
+
+    private final CollisionStrategy base;
+    private final int program;
+    private final StrategyTable behaviors;
+    private final MutationQueue mutations;
+    private final String name;
+
+    /**
+     * Compile a combination.
+     *
+     * @param base the strategy removing the brick, run once before the specials
+     * @param specials special types to combine, in execution order; BASIC and DOUBLE are not
+     *                 allowed
+     * @param specialsCount number of valid entries in {@code specials}, at least 1
+     * @param behaviors table providing the behavior of every special type
+     * @param mutations queue whose additions are counted as spawned objects in traced runs
+     */
+    CompiledCollisionStrategy(CollisionStrategy base,
+                              StrategyType[] specials,
+                              int specialsCount,
+                              StrategyTable behaviors,
+                              MutationQueue mutations) {
+        int compiled = 0;
+        StringBuilder joined = new StringBuilder();
+        for (int i = specialsCount - 1; i >= 0; i--) {
+            compiled = (compiled << OP_BITS) | opOf(specials[i]);
+        }
+        for (int i = 0; i < specialsCount; i++) {
+            if (i > 0) joined.append('+');
+            joined.append(nameOf(specials[i]));
+        }
+        this.base = base;
+        this.program = compiled;
+        this.behaviors = behaviors;
+        this.mutations = mutations;
+        this.name = joined.toString();
+    }
+
+    /**
+     * Run the base strategy once and then every operation of the program, in order. Operations
+     * only run when {@code objA} is a {@link Brick}.
+     *
+     * @param objA The brick.
+     * @param objB The colliding object (ball or puck).
+     */
+    @Override
+    public void onCollision(GameObject objA, GameObject objB) {
+        StrategyExecutionEvent event = new StrategyExecutionEvent();
+        if (event.isEnabled()) {
+            onCollisionTraced(objA, objB);
+            return;
+        }
+        base.onCollision(objA, objB);
+        if (!(objA instanceof Brick)) return;
+        Brick brick = (Brick) objA;
+        for (int ops = program; ops != 0; ops >>>= OP_BITS) {
+            run(ops & OP_MASK, brick, objB);
+        }
+    }
+
+    /**
+     * @return the names of the special behaviors joined by {@code +}, e.g.
+     *         {@code "AdditionalBalls+ReturnLife"}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Run the effect of one operation.
+     */
+    private void run(int op, Brick brick, GameObject hitter) {
+        switch (op) {
+            case OP_PUCKS:
+                behaviors.additionalBalls().spawnPucks(brick);
+                break;
+            case OP_PADDLE:
+                behaviors.extraPaddle().spawnPaddle();
+                break;
+            case OP_EXPLODE:
+                behaviors.explodingBrick().explode(brick, hitter);
+                break;
+            case OP_HEART:
+                behaviors.returnLife().spawnHeart(brick);
+                break;
+            default:
+                throw new IllegalStateException("unknown operation " + op);
+        }
+    }
+
+    /**
+     * Like {@link #onCollision}, recording the base and every operation as a
+     * {@link StrategyExecutionEvent}, at positions 0 and 1, 2, ... in execution order.
+     */
+    private void onCollisionTraced(GameObject objA, GameObject objB) {
+        traced(0, 0, objA, objB);
+        if (!(objA instanceof Brick)) return;
+        int position = 1;
+        for (int ops = program; ops != 0; ops >>>= OP_BITS) {
+            traced(ops & OP_MASK, position++, objA, objB);
+        }
+    }
+
+    /**
+     * Run operation {@code op}, or the base strategy for 0, inside a strategy event.
+     */
+    private void traced(int op, int position, GameObject objA, GameObject objB) {
+        StrategyExecutionEvent event = new StrategyExecutionEvent();
+        long addsBefore = mutations.getAddCount();
+        event.begin();
+        if (op == 0) {
+            base.onCollision(objA, objB);
+        } else {
+            run(op, (Brick) objA, objB);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategyType = (op == 0 ? StrategyType.BASIC : TYPE_OF_OP[op]).name();
+            event.position = position;
+            event.spawned = mutations.getAddCount() - addsBefore;
+            if (objA instanceof Brick) {
+                event.row = ((Brick) objA).getRow();
+                event.col = ((Brick) objA).getCol();
+            }
+            event.commit();
+        }
+    }
+
+    private static int opOf(StrategyType type) {
+        for (int op = 1; op < TYPE_OF_OP.length; op++) {
+            if (TYPE_OF_OP[op] == type) return op;
+        }
+        throw new IllegalArgumentException("not a single special type: " + type);
+    }
+
+    /**
+     * @return the metric name of a special type's behavior, known before the behavior is built
+     */
+    private static String nameOf(StrategyType type) {
+        switch (type) {
+            case ADDITIONAL_BALLS:
+                return "AdditionalBalls";
+            case EXTRA_PADDLE:
+                return "ExtraPaddle";
+            case EXPLODING_BRICKS:
+                return "ExplodingBrick";
+            case RETURN_LIFE:
+                return "ReturnLife";
+            default:
+                return type.name();
+        }
+    }
+}
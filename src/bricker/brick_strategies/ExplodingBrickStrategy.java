@@ -1,89 +1,62 @@
 package bricker.brick_strategies;
 
+import bricker.assets.AssetRegistry;
+import bricker.audio.AudioMixer;
 import bricker.gameobjects.Brick;
 import danogl.GameObject;
-import danogl.gui.Sound;
-import danogl.gui.SoundReader;
 
 /**
  * Strategy that causes a brick to explode and destroy adjacent bricks (up, down, left, right).
  * The explosion can trigger chain reactions if adjacent bricks also have special behaviors.
- * Uses a 2D array to efficiently look up adjacent bricks by their row and column indices.
+ * Neighbors are resolved through a shared {@link ExplosionCascade}, which propagates the chain
+ * breadth-first without recursion.
  */
 public class ExplodingBrickStrategy implements CollisionStrategy {
-    private static final String EXPLOSION_SOUND_PATH = "assets/explosion.wav";
-
     private final CollisionStrategy baseStrategy;
-    private final Sound explosionSound;
-    private final Brick[][] brickGrid;
+    private final AudioMixer.Clip explosionSound;
+    private final ExplosionCascade cascade;
 
     /**
      * Constructs an ExplodingBrickStrategy.
      *
      * @param baseStrategy The base strategy to execute (removes brick and decrements counter)
-     * @param soundReader Sound reader for playing explosion sound
-     * @param brickGrid 2D array storing all bricks by their grid coordinates [row][col]
+     * @param audio The game's audio mixer, providing the explosion sound; null for silent
+     *              explosions
+     * @param cascade Explosion worklist shared by all exploding bricks of the grid
      */
     public ExplodingBrickStrategy(CollisionStrategy baseStrategy,
-                                  SoundReader soundReader,
-                                  Brick[][] brickGrid) {
+                                  AudioMixer audio,
+                                  ExplosionCascade cascade) {
         this.baseStrategy = baseStrategy;
-        this.explosionSound = soundReader.readSound(EXPLOSION_SOUND_PATH);
-        this.brickGrid = brickGrid;
+        this.explosionSound = audio == null ? null : audio.clip(AssetRegistry.EXPLOSION_SOUND);
+        this.cascade = cascade;
     }
 
     /**
-     * Execute explosion: play sound, remove the current brick and attempt to explode adjacent ones.
+     * Execute explosion: remove the current brick, play the sound and explode adjacent ones.
      *
      * @param objA the brick that was hit
      * @param objB the colliding object
      */
     @Override
     public void onCollision(GameObject objA, GameObject objB) {
-        if (explosionSound != null) explosionSound.play();
-
         // First, execute the base strategy - removes brick and decrements counter
         baseStrategy.onCollision(objA, objB);
 
         // Check if objA is a Brick and explode adjacent bricks
         if (!(objA instanceof Brick)) return;
-        Brick brick = (Brick) objA;
-        int row = brick.getRow();
-        int col = brick.getCol();
-
-        // Clear this brick from the grid to avoid processing it again
-        if (row >= 0 && row < brickGrid.length &&
-            col >= 0 && col < brickGrid[row].length) {
-            brickGrid[row][col] = null;
-        }
-
-        explodeAdjacentBrick(row - 1, col, objB);
-        explodeAdjacentBrick(row + 1, col, objB);
-        explodeAdjacentBrick(row, col - 1, objB);
-        explodeAdjacentBrick(row, col + 1, objB);
+        explode((Brick) objA, objB);
     }
 
     /**
-     * Explodes an adjacent brick at the given row and column.
-     * Looks up the brick in the 2D array and triggers its strategy.
+     * Play the explosion sound and explode the bricks adjacent to {@code brick}, without running
+     * the base strategy.
      *
-     * @param row Row index of the adjacent brick
-     * @param col Column index of the adjacent brick
-     * @param collidingObject The object that collided with the original brick
+     * @param brick the brick that was hit
+     * @param hitter the object that hit the brick
      */
-    private void explodeAdjacentBrick(int row, int col, GameObject collidingObject) {
-        // Check bounds to avoid array index out of bounds
-        if (row < 0 || row >= brickGrid.length) {
-            return;
-        }
-        if (col < 0 || brickGrid[row] == null || col >= brickGrid[row].length) {
-            return;
-        }
-
-        Brick adjacentBrick = brickGrid[row][col];
-        if (adjacentBrick != null) {
-            brickGrid[row][col] = null;
-            adjacentBrick.onCollisionEnter(collidingObject, null);
-        }
+    public void explode(Brick brick, GameObject hitter) {
+        if (explosionSound != null) explosionSound.play();
+        cascade.explode(brick.getRow(), brick.getCol(), hitter);
     }
 }
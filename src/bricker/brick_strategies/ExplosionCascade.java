@@ -0,0 +1,138 @@
+package bricker.brick_strategies;
+
+import bricker.gameobjects.BrickField;
+import bricker.metrics.Histogram;
+import danogl.GameObject;
+
+/**
+ * Breadth-first propagation of brick explosions. Instead of each exploding brick recursively
+ * triggering its neighbors, neighbors are put on a shared worklist, and the outermost explosion
+ * drains it. Explosions triggered while draining only add to the worklist, so the call stack
+ * stays shallow no matter how large the exploding region is. A cell is claimed from the
+ * {@link BrickField} when it is queued, so every brick is visited at most once.
+ */
+public class ExplosionCascade {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final BrickField field;
+
+    // ring buffer of queued cells (row * cols + col) and the depth at which each was reached
+    private int[] queuedCells = new int[INITIAL_CAPACITY];
+    private int[] queuedDepths = new int[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    private boolean draining = false;
+    private int currentDepth = 0;
+
+    private int lastCascadeSize = 0;
+    private Histogram sizeHistogram;
+    private Histogram depthHistogram;
+
+    /**
+     * Construct a cascade over a brick field.
+     *
+     * @param field the field holding every brick by its grid coordinates
+     */
+    public ExplosionCascade(BrickField field) {
+        this.field = field;
+    }
+
+    /**
+     * Explode the brick at ({@code row}, {@code col}): make sure its cell is cleared and queue
+     * its four neighbors. If no cascade is in progress, this call drains the worklist, running
+     * the strategy of every queued brick; otherwise the neighbors are left for the running
+     * cascade.
+     *
+     * @param row row of the exploding brick
+     * @param col column of the exploding brick
+     * @param hitter the object that hit the first brick of the cascade
+     */
+    public void explode(int row, int col, GameObject hitter) {
+        field.claim(row, col);
+        int depth = draining ? currentDepth + 1 : 1;
+        enqueue(row - 1, col, depth);
+        enqueue(row + 1, col, depth);
+        enqueue(row, col - 1, depth);
+        enqueue(row, col + 1, depth);
+
+        if (draining) return;
+        drain(hitter);
+    }
+
+    /**
+     * @return number of bricks destroyed by the most recent cascade, including its first brick
+     */
+    public int getLastCascadeSize() { return lastCascadeSize; }
+
+    /**
+     * Record every finished cascade.
+     *
+     * @param sizeHistogram receives the number of bricks of every cascade; null to stop recording
+     * @param depthHistogram receives the neighbor-to-neighbor distance reached by every cascade;
+     *                       null to stop recording
+     */
+    public void setHistograms(Histogram sizeHistogram, Histogram depthHistogram) {
+        this.sizeHistogram = sizeHistogram;
+        this.depthHistogram = depthHistogram;
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Run the strategies of all queued bricks until the worklist is empty.
+     */
+    private void drain(GameObject hitter) {
+        draining = true;
+        int cols = field.getCols();
+        int exploded = 1;
+        int maxDepth = 0;
+        try {
+            while (size > 0) {
+                int cell = queuedCells[head];
+                currentDepth = queuedDepths[head];
+                head = (head + 1) % queuedCells.length;
+                size--;
+
+                exploded++;
+                if (currentDepth > maxDepth) maxDepth = currentDepth;
+                field.strike(cell / cols, cell % cols, hitter);
+            }
+        } finally {
+            draining = false;
+            currentDepth = 0;
+        }
+        lastCascadeSize = exploded;
+        if (sizeHistogram != null) sizeHistogram.record(exploded);
+        if (depthHistogram != null) depthHistogram.record(maxDepth);
+    }
+
+    /**
+     * Claim and queue the brick at ({@code row}, {@code col}), if there is a live one.
+     */
+    private void enqueue(int row, int col, int depth) {
+        if (!field.claim(row, col)) return;
+
+        if (size == queuedCells.length) grow();
+        int tail = (head + size) % queuedCells.length;
+        queuedCells[tail] = row * field.getCols() + col;
+        queuedDepths[tail] = depth;
+        size++;
+    }
+
+    /**
+     * Double the worklist capacity, unrolling the ring so it starts at index 0.
+     */
+    private void grow() {
+        int capacity = queuedCells.length * 2;
+        int[] cells = new int[capacity];
+        int[] depths = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) % queuedCells.length;
+            cells[i] = queuedCells[from];
+            depths[i] = queuedDepths[from];
+        }
+        queuedCells = cells;
+        queuedDepths = depths;
+        head = 0;
+    }
+}
@@ -1,8 +1,8 @@
 package bricker.brick_strategies;
 
 import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.MutationQueue;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Counter;
@@ -11,39 +11,43 @@ import danogl.util.Vector2;
 /**
  * Strategy that spawns an extra paddle when a brick is broken.
  * The extra paddle is a limited-life paddle that can take hits and then be removed.
- * Only one ExtraPaddle is allowed in the entire game at any time.
+ * Only one ExtraPaddle is allowed in the game at any time.
  */
 public class ExtraPaddleStrategy implements CollisionStrategy {
-    private final GameObjectCollection collection;
+    private final MutationQueue mutations;
     private final Vector2 windowDimensions;
     private final Renderable paddleRenderable;
     private final UserInputListener inputListener;
     private final Vector2 paddleSize;
+    private final Counter extraPaddles;
 
     private final BasicCollisionStrategy basic;
 
     /**
      * Construct an ExtraPaddleStrategy.
      *
-     * @param collection game object collection to add/remove the extra paddle
+     * @param mutations queue the extra paddle is added through
      * @param windowDimensions the current window dimensions
      * @param paddleRenderable renderable to use for the extra paddle
      * @param inputListener user input listener
      * @param paddleSize the size of the paddle
      * @param bricksLeft counter for remaining bricks
+     * @param extraPaddles the game's count of present extra paddles
      */
-    public ExtraPaddleStrategy(GameObjectCollection collection,
+    public ExtraPaddleStrategy(MutationQueue mutations,
                                Vector2 windowDimensions,
                                Renderable paddleRenderable,
                                UserInputListener inputListener,
                                Vector2 paddleSize,
-                               Counter bricksLeft) {
-        this.collection = collection;
+                               Counter bricksLeft,
+                               Counter extraPaddles) {
+        this.mutations = mutations;
         this.windowDimensions = windowDimensions;
         this.paddleRenderable = paddleRenderable;
         this.inputListener = inputListener;
         this.paddleSize = paddleSize;
-        this.basic = new BasicCollisionStrategy(collection, bricksLeft);
+        this.extraPaddles = extraPaddles;
+        this.basic = new BasicCollisionStrategy(bricksLeft);
     }
 
     /**
@@ -55,8 +59,14 @@ public class ExtraPaddleStrategy implements CollisionStrategy {
     @Override
     public void onCollision(GameObject brick, GameObject hitter) {
         basic.onCollision(brick, hitter);
+        spawnPaddle();
+    }
 
-        if (ExtraPaddle.isPresent()) return;
+    /**
+     * Create an extra paddle if none exists in the game, without removing any brick.
+     */
+    public void spawnPaddle() {
+        if (extraPaddles.value() > 0) return;
 
         ExtraPaddle p = new ExtraPaddle(
                 new danogl.util.Vector2(0,0),
@@ -64,9 +74,10 @@ public class ExtraPaddleStrategy implements CollisionStrategy {
                 paddleRenderable,
                 inputListener,
                 windowDimensions,
-                collection
+                mutations,
+                extraPaddles
         );
         p.setCenter(new danogl.util.Vector2(windowDimensions.x()/2f, windowDimensions.y()/2f));
-        collection.addGameObject(p);
+        mutations.add(p);
     }
 }
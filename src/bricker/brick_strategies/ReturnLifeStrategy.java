@@ -1,10 +1,10 @@
 package bricker.brick_strategies;
 
+import bricker.assets.AssetRegistry;
 import bricker.gameobjects.FallingHeart;
 import bricker.gameobjects.Brick;
+import bricker.gameobjects.MutationQueue;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -16,7 +16,7 @@ public class ReturnLifeStrategy implements CollisionStrategy {
     private static final float HEART_SIZE = 24f;
 
     private final CollisionStrategy baseStrategy;
-    private final GameObjectCollection gameObjects;
+    private final MutationQueue mutations;
     private final Renderable heartImage;
     private final Vector2 windowDimensions;
     private final GameObject originalPaddle;
@@ -26,21 +26,21 @@ public class ReturnLifeStrategy implements CollisionStrategy {
      * Constructs a ReturnLifeStrategy.
      *
      * @param baseStrategy The base strategy to execute (removes brick and decrements counter)
-     * @param gameObjects The game objects collection for adding the falling heart
-     * @param imageReader Image reader for loading the heart image
+     * @param mutations Queue the falling heart is added through
+     * @param assets Shared asset registry providing the heart image
      * @param windowDimensions Window dimensions for boundary checking
      * @param originalPaddle Reference to the original paddle
      * @param lifeRestoreCallback Callback to restore a life when heart is collected
      */
     public ReturnLifeStrategy(CollisionStrategy baseStrategy,
-                             GameObjectCollection gameObjects,
-                             ImageReader imageReader,
+                             MutationQueue mutations,
+                             AssetRegistry assets,
                              Vector2 windowDimensions,
                              GameObject originalPaddle,
                              FallingHeart.LifeRestoreCallback lifeRestoreCallback) {
         this.baseStrategy = baseStrategy;
-        this.gameObjects = gameObjects;
-        this.heartImage = imageReader.readImage("assets/heart.png", true);
+        this.mutations = mutations;
+        this.heartImage = assets.image(AssetRegistry.HEART_IMAGE);
         this.windowDimensions = windowDimensions;
         this.originalPaddle = originalPaddle;
         this.lifeRestoreCallback = lifeRestoreCallback;
@@ -59,19 +59,27 @@ public class ReturnLifeStrategy implements CollisionStrategy {
 
         // Only spawn a heart if a Brick was hit
         if (!(objA instanceof Brick)) return;
+        spawnHeart((Brick) objA);
+    }
 
+    /**
+     * Spawn a falling heart at a brick's center, without running the base strategy.
+     *
+     * @param brick the brick that was hit
+     */
+    public void spawnHeart(Brick brick) {
         // Create falling heart at the brick's center
-        Vector2 brickCenter = objA.getCenter();
+        Vector2 brickCenter = brick.getCenter();
         FallingHeart fallingHeart = new FallingHeart(
                 brickCenter,
                 new Vector2(HEART_SIZE, HEART_SIZE),
                 heartImage,
-                gameObjects,
+                mutations,
                 windowDimensions,
                 originalPaddle,
                 lifeRestoreCallback
         );
         fallingHeart.setCenter(brickCenter);
-        gameObjects.addGameObject(fallingHeart);
+        mutations.add(fallingHeart);
     }
 }
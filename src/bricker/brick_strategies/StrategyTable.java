@@ -0,0 +1,159 @@
+package bricker.brick_strategies;
+
+import bricker.assets.AssetRegistry;
+import bricker.audio.AudioMixer;
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.MutationQueue;
+import bricker.gameobjects.PuckManager;
+import bricker.levels.Level;
+import bricker.util.GameRandom;
+import danogl.GameObject;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+/**
+ * Canonical brick strategies of one game, interned by {@link Level} cell code. Every brick
+ * combining the same special behaviors shares one strategy, so strategy memory grows with the
+ * number of distinct combinations (at most {@link Level#CODE_LIMIT}) instead of with the number
+ * of bricks. Strategies keep no per-brick state: the brick's cell is read from the
+ * {@link bricker.gameobjects.Brick} view passed to them.
+ * <p>
+ * Combinations are compiled into flat {@link CompiledCollisionStrategy} handlers over one
+ * shared behavior per special type. A behavior is only built, with its images and sounds, the
+ * first time a brick using it is hit.
+ */
+public class StrategyTable {
+    private final CollisionStrategy base;
+    private final MutationQueue mutations;
+    private final AssetRegistry assets;
+    private final AudioMixer audio;
+    private final Vector2 windowDimensions;
+    private final PuckManager pucks;
+    private final Vector2 paddleSize;
+    private final Renderable paddleRenderable;
+    private final UserInputListener inputListener;
+    private final Counter bricksLeft;
+    private final Counter extraPaddles;
+    private final ExplosionCascade cascade;
+    private final GameObject originalPaddle;
+    private final FallingHeart.LifeRestoreCallback lifeRestoreCallback;
+
+    private final CollisionStrategy[] byCode = new CollisionStrategy[Level.CODE_LIMIT];
+    private final StrategyType[] drawn = new StrategyType[StrategyFactory.MAX_SPECIALS];
+
+    // shared behaviors, built on first use; their base is a no-op, as the handlers only call
+    // their effects
+    private final NoOpCollisionStrategy noop = new NoOpCollisionStrategy();
+    private AdditionalBallsStrategy additionalBalls;
+    private ExtraPaddleStrategy extraPaddle;
+    private ExplodingBrickStrategy explodingBrick;
+    private ReturnLifeStrategy returnLife;
+
+    /**
+     * Construct an empty table. Parameters are the dependencies of the special behaviors.
+     *
+     * @param realBase the base strategy every brick executes once, removing it
+     * @param mutations frame-deferred mutation queue
+     * @param assets shared asset registry
+     * @param audio the game's audio mixer, or null for silent strategies
+     * @param windowDimensions window size
+     * @param pucks puck manager
+     * @param paddleSize paddle size
+     * @param paddleRenderable paddle renderable
+     * @param inputListener user input listener
+     * @param bricksLeft bricks-left counter
+     * @param extraPaddles the game's count of present extra paddles
+     * @param cascade explosion worklist for exploding behavior
+     * @param originalPaddle original paddle reference
+     * @param lifeRestoreCallback life restore callback
+     */
+    public StrategyTable(CollisionStrategy realBase,
+                         MutationQueue mutations,
+                         AssetRegistry assets,
+                         AudioMixer audio,
+                         Vector2 windowDimensions,
+                         PuckManager pucks,
+                         Vector2 paddleSize,
+                         Renderable paddleRenderable,
+                         UserInputListener inputListener,
+                         Counter bricksLeft,
+                         Counter extraPaddles,
+                         ExplosionCascade cascade,
+                         GameObject originalPaddle,
+                         FallingHeart.LifeRestoreCallback lifeRestoreCallback) {
+        this.base = realBase;
+        this.mutations = mutations;
+        this.assets = assets;
+        this.audio = audio;
+        this.windowDimensions = windowDimensions;
+        this.pucks = pucks;
+        this.paddleSize = paddleSize;
+        this.paddleRenderable = paddleRenderable;
+        this.inputListener = inputListener;
+        this.bricksLeft = bricksLeft;
+        this.extraPaddles = extraPaddles;
+        this.cascade = cascade;
+        this.originalPaddle = originalPaddle;
+        this.lifeRestoreCallback = lifeRestoreCallback;
+    }
+
+    /**
+     * Return the canonical strategy of a cell code, creating it on first request.
+     *
+     * @param code a non-empty, valid cell code
+     * @return the base strategy for {@link Level#BASIC}, otherwise the shared combination
+     */
+    public CollisionStrategy get(int code) {
+        if (code == Level.BASIC) return base;
+        CollisionStrategy strategy = byCode[code];
+        if (strategy == null) {
+            StrategyType[] specials = new StrategyType[StrategyFactory.MAX_SPECIALS];
+            int count = Level.decode(code, specials);
+            strategy = new CompiledCollisionStrategy(base, specials, count, this, mutations);
+            byCode[code] = strategy;
+        }
+        return strategy;
+    }
+
+    /**
+     * Draw a random special combination with {@link StrategyFactory#drawSpecialTypes} and return
+     * its canonical strategy.
+     *
+     * @param rand source of randomness
+     * @return the shared strategy of the drawn combination
+     */
+    public CollisionStrategy getRandomSpecial(GameRandom rand) {
+        int count = StrategyFactory.drawSpecialTypes(rand, drawn);
+        return get(Level.encode(drawn, count));
+    }
+
+    /*====== Behaviors, built on first use =======*/
+    AdditionalBallsStrategy additionalBalls() {
+        if (additionalBalls == null) additionalBalls = new AdditionalBallsStrategy(noop, pucks);
+        return additionalBalls;
+    }
+
+    ExtraPaddleStrategy extraPaddle() {
+        if (extraPaddle == null) {
+            extraPaddle = new ExtraPaddleStrategy(mutations, windowDimensions, paddleRenderable,
+                    inputListener, paddleSize, bricksLeft, extraPaddles);
+        }
+        return extraPaddle;
+    }
+
+    ExplodingBrickStrategy explodingBrick() {
+        if (explodingBrick == null) explodingBrick = new ExplodingBrickStrategy(noop, audio, cascade);
+        return explodingBrick;
+    }
+
+    ReturnLifeStrategy returnLife() {
+        if (returnLife == null) {
+            returnLife = new ReturnLifeStrategy(noop, mutations, assets, windowDimensions,
+                    originalPaddle, lifeRestoreCallback);
+        }
+        return returnLife;
+    }
+}
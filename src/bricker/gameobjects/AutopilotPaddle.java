@@ -0,0 +1,145 @@
+package bricker.gameobjects;
+
+import bricker.util.GameRandom;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A paddle that plays by itself: it predicts where the ball will reach the paddle's height and
+ * moves there. The prediction is closed-form: the walls are unfolded, so the ball flies in a
+ * straight line through mirrored copies of the play field, and its position is folded back
+ * with one modulo. It costs the same whatever the ball's speed or the number of bounces ahead,
+ * and only the main ball is followed, so the cost per frame stays constant however many pucks
+ * are in play. Bricks are ignored; a ball deflected by a brick simply gets a new prediction on
+ * the next frame.
+ * <p>
+ * Skill is set by an error model: every time the ball starts falling, the paddle picks an aim
+ * offset uniformly from {@code [-aimError, aimError]} and aims that far from the prediction.
+ * With an error below half the paddle width the ball is always caught.
+ */
+public class AutopilotPaddle extends Paddle {
+    /**
+     * Preset skill levels.
+     */
+    public enum Skill {
+        /** Always aims at the landing point. */
+        GOOD(0f),
+        /** Aims up to 1.2 paddle widths away from the landing point, and misses about half the
+         * time. */
+        BAD(1.2f);
+
+        private final float aimErrorInPaddleWidths;
+
+        Skill(float aimErrorInPaddleWidths) {
+            this.aimErrorInPaddleWidths = aimErrorInPaddleWidths;
+        }
+
+        /**
+         * @param paddleWidth width of the paddle
+         * @return maximum aim offset of this skill level, in pixels
+         */
+        public float aimError(float paddleWidth) {
+            return aimErrorInPaddleWidths * paddleWidth;
+        }
+    }
+
+    private final Ball ball;
+    private final float minCenterX;
+    private final float fieldWidth;
+    private final float topCenterY;
+    private final float aimError;
+    private final GameRandom random;
+    private float aimOffset = 0;
+    private boolean falling = false;
+
+    /**
+     * Construct an autopilot paddle.
+     *
+     * @param topLeftCorner initial top-left corner
+     * @param dimensions width and height of the paddle
+     * @param renderable visual representation
+     * @param windowDimensions current window size for bounds checking
+     * @param ball the ball to follow
+     * @param leftBound x coordinate of the inner edge of the left wall
+     * @param rightBound x coordinate of the inner edge of the right wall
+     * @param topBound y coordinate of the inner edge of the top wall
+     * @param aimError maximum distance, in pixels, between the predicted landing point and where
+     *                 the paddle aims
+     * @param random stream the aim offsets are drawn from
+     */
+    public AutopilotPaddle(Vector2 topLeftCorner,
+                           Vector2 dimensions,
+                           Renderable renderable,
+                           Vector2 windowDimensions,
+                           Ball ball,
+                           float leftBound,
+                           float rightBound,
+                           float topBound,
+                           float aimError,
+                           GameRandom random) {
+        super(topLeftCorner, dimensions, renderable, null, windowDimensions);
+        float radius = ball.getDimensions().x() / 2;
+        this.ball = ball;
+        this.minCenterX = leftBound + radius;
+        this.fieldWidth = Math.max(0f, rightBound - leftBound - 2 * radius);
+        this.topCenterY = topBound + ball.getDimensions().y() / 2;
+        this.aimError = aimError;
+        this.random = random;
+    }
+
+    /**
+     * Predict the x coordinate of the ball's center when it next comes down to {@code y}.
+     *
+     * @param y height of the ball's center, below the ball
+     * @return predicted x coordinate of the ball's center
+     */
+    public float predictLandingX(float y) {
+        Vector2 position = ball.getTopLeftCorner();
+        Vector2 size = ball.getDimensions();
+        Vector2 velocity = ball.getVelocity();
+        float x0 = position.x() + size.x() / 2;
+        float y0 = position.y() + size.y() / 2;
+        float vx = velocity.x();
+        float vy = velocity.y();
+
+        float time;
+        if (vy > 0) {
+            time = (y - y0) / vy;
+        } else if (vy < 0) {
+            // up to the top wall and back down
+            time = ((y0 - topCenterY) + (y - topCenterY)) / -vy;
+        } else {
+            return x0;
+        }
+        if (fieldWidth == 0 || time <= 0) return x0;
+
+        // unfolded, the ball moves in a straight line over mirrored copies of the field
+        float unfolded = (x0 - minCenterX) + vx * time;
+        float period = 2 * fieldWidth;
+        float folded = unfolded - period * (float) Math.floor(unfolded / period);
+        return minCenterX + (folded <= fieldWidth ? folded : period - folded);
+    }
+
+    /**
+     * Move towards the predicted landing point, offset by the current aim error.
+     *
+     * @param deltaTime elapsed time since last update
+     * @return -1 to move left, 1 to move right, 0 to stand still
+     */
+    @Override
+    protected int steer(float deltaTime) {
+        boolean nowFalling = ball.getVelocity().y() > 0;
+        if (nowFalling && !falling && aimError > 0) {
+            aimOffset = (random.nextFloat() * 2 - 1) * aimError;
+        }
+        falling = nowFalling;
+
+        Vector2 topLeft = getTopLeftCorner();
+        float paddleCenterX = topLeft.x() + getDimensions().x() / 2;
+        float landingY = topLeft.y() - ball.getDimensions().y() / 2;
+        float offset = predictLandingX(landingY) + aimOffset - paddleCenterX;
+        // within one frame of movement: stay put rather than jitter around the target
+        if (Math.abs(offset) <= MOVEMENT_SPEED * deltaTime) return 0;
+        return offset < 0 ? -1 : 1;
+    }
+}
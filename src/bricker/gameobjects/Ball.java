@@ -1,17 +1,27 @@
 package bricker.gameobjects;
 
+import bricker.audio.AudioMixer;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
+import java.util.Arrays;
+
 /**
  * A simple bouncing ball that reflects its velocity upon collision and plays a collision sound.
+ * The four mirror images of the current velocity are cached, so bouncing off walls, paddles and
+ * bricks does not allocate once the ball's speed is settled.
  */
 public class Ball extends GameObject {
 
-    private final Sound collisionSound;
+    private final AudioMixer.Clip collisionSound;
+    private CollisionWorld collisionWorld;
+
+    // velocities (+-x, +-y) sharing the absolute components below, indexed by their signs
+    private final Vector2[] mirroredVelocities = new Vector2[4];
+    private float mirroredX = Float.NaN;
+    private float mirroredY = Float.NaN;
 
     /**
      * Construct a Ball.
@@ -19,14 +29,34 @@ public class Ball extends GameObject {
      * @param topLeftCorner initial top-left position
      * @param dimensions width and height of the ball
      * @param renderable renderable used to draw the ball
-     * @param collisionSound sound to play on collision
+     * @param collisionSound sound to play on collision, or null for a silent ball
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                        Sound collisionSound) {
+                        AudioMixer.Clip collisionSound) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
     }
 
+    /**
+     * Sweep the ball against walls and bricks with continuous collision detection, if it has a
+     * {@link CollisionWorld}, then move it for the rest of the frame.
+     *
+     * @param deltaTime elapsed time since last update
+     */
+    @Override
+    public void update(float deltaTime) {
+        float freeTime = collisionWorld == null ? deltaTime : collisionWorld.advance(this, deltaTime);
+        super.update(freeTime);
+    }
+
+    /**
+     * @param collisionWorld walls and bricks this ball is swept against; null to rely on the
+     *                       engine's collision checks only
+     */
+    public void setCollisionWorld(CollisionWorld collisionWorld) {
+        this.collisionWorld = collisionWorld;
+    }
+
     /**
      * Reflect the ball velocity along the collision normal and play the collision sound.
      *
@@ -36,8 +66,49 @@ public class Ball extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        Vector2 newVel = getVelocity().flipped(collision.getNormal());
-        setVelocity(newVel);
-        this.collisionSound.play();
+        bounce(collision.getNormal());
+    }
+
+    /**
+     * Reflect the ball velocity along {@code normal} and play the collision sound.
+     * Used directly by collision checks that run outside the engine, such as {@link CollisionWorld}.
+     *
+     * @param normal collision normal
+     */
+    public void bounce(Vector2 normal) {
+        Vector2 velocity = getVelocity();
+        float vx = velocity.x();
+        float vy = velocity.y();
+        float dot = vx * normal.x() + vy * normal.y();
+        float newX = vx - 2 * dot * normal.x();
+        float newY = vy - 2 * dot * normal.y();
+        if (Math.abs(newX) == Math.abs(vx) && Math.abs(newY) == Math.abs(vy)) {
+            setVelocity(mirrored(newX, newY));
+        } else {
+            setVelocity(new Vector2(newX, newY));
+        }
+        if (collisionSound != null) collisionSound.play();
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Return a cached vector equal to ({@code x}, {@code y}), creating it on first use. The cache
+     * is reset when the absolute components change.
+     */
+    private Vector2 mirrored(float x, float y) {
+        float absX = Math.abs(x);
+        float absY = Math.abs(y);
+        if (absX != mirroredX || absY != mirroredY) {
+            Arrays.fill(mirroredVelocities, null);
+            mirroredX = absX;
+            mirroredY = absY;
+        }
+        int index = (x < 0 ? 1 : 0) | (y < 0 ? 2 : 0);
+        Vector2 cached = mirroredVelocities[index];
+        if (cached == null) {
+            cached = new Vector2(x, y);
+            mirroredVelocities[index] = cached;
+        }
+        return cached;
     }
 }
@@ -1,47 +1,80 @@
 package bricker.gameobjects;
 
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.metrics.BrickHitEvent;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
 /**
- * A Brick object placed in a grid. Each brick holds a {@link CollisionStrategy} which defines
- * what happens when it is hit (for example removal, spawning items, or chain reactions).
+ * A view of one cell of the {@link BrickField}. Each brick holds a {@link CollisionStrategy} which
+ * defines what happens when it is hit (for example removal, spawning items, or chain reactions).
  * Bricks know their grid coordinates (row and column) so strategies such as exploding
- * bricks can locate neighbors.
+ * bricks can locate neighbors. Bricks are not stored in the game: the field materializes one
+ * when its cell is hit, and it is discarded once its strategy has run.
  */
 public class Brick extends GameObject {
+    private final BrickField field;
     private final int row;
     private final int col;
     private final CollisionStrategy strategy;
+    private boolean removed = false;
+
     /**
-     * Construct a Brick instance.
+     * Construct a Brick view. Bricks are created by {@link BrickField#materialize(int, int)}.
      *
      * @param topLeftCorner Position of the object.
-     * @param renderable The renderable representing the object. Can be null.
+     * @param dimensions Width and height of the brick.
+     * @param field The field holding the brick's cell
      * @param row Row index in the brick grid
      * @param col Column index in the brick grid
      * @param strategy CollisionStrategy executed on hit
      */
-    public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, int row, int col,
-                 CollisionStrategy strategy) {
-        super(topLeftCorner, dimensions, renderable);
+    Brick(Vector2 topLeftCorner, Vector2 dimensions, BrickField field, int row, int col,
+          CollisionStrategy strategy) {
+        super(topLeftCorner, dimensions, null);
+        this.field = field;
         this.row = row;
         this.col = col;
         this.strategy = strategy;
     }
 
     /**
-     * Delegate collision handling to the configured {@link CollisionStrategy}.
+     * Delegate collision handling to the configured {@link CollisionStrategy}, inside a
+     * {@link BrickHitEvent} when Flight Recorder is recording it.
      *
      * @param other the colliding object
-     * @param collision collision data
+     * @param collision collision data; null for hits resolved by the field
      */
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
+        BrickHitEvent event = new BrickHitEvent();
+        if (!event.isEnabled()) {
+            strategy.onCollision(this, other);
+            return;
+        }
+        event.begin();
         strategy.onCollision(this, other);
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = strategy.getName();
+            event.row = row;
+            event.col = col;
+            event.hitter = other == null ? null : other.getClass();
+            event.commit();
+        }
+    }
+
+    /**
+     * Remove the brick from its field.
+     *
+     * @return true the first time this brick is removed; false afterwards
+     */
+    public boolean remove() {
+        if (removed) return false;
+        removed = true;
+        field.claim(row, col);
+        return true;
     }
 
     /**
@@ -0,0 +1,576 @@
+package bricker.gameobjects;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.levels.Level;
+import bricker.metrics.MetricsRegistry;
+import bricker.util.StateHash;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Struct-of-arrays storage for the whole brick lattice. Instead of one {@link GameObject} per
+ * brick, the field keeps primitive arrays: the x of every column, the y of every row, one alive
+ * bit per cell and a strategy id per cell indexing a shared strategy table. The field itself is
+ * the only game object of the brick layer: it draws every live brick and acts as the broadphase
+ * that sweeps each {@link Ball} only against the cells its path covers (see
+ * {@link CollisionWorld}).
+ * <p>
+ * Live bricks are drawn once into an off-screen layer image, and a destroyed brick is erased from
+ * that image when its cell is claimed. Rendering a frame is then a single image blit, whatever the
+ * number of bricks. The layer only covers the part of the field above its clip edge (see
+ * {@link #clipTo(float)}), so a grid much taller than the window costs a window-sized image.
+ * <p>
+ * A {@link Brick} is only materialized, as a short-lived view, when a cell is hit, so strategies
+ * keep receiving a brick that knows its row and column.
+ * <p>
+ * A field built over a {@link Level} taller than its visible area pages rows: only a window of
+ * rows around the visible ones is resident in the arrays above, indexed as a ring. The view
+ * starts at the bottom of the level and moves up one row whenever its lowest visible row has been
+ * cleared (see {@link #advanceView()}); the rows above the window stay in the level's compact
+ * storage until they are paged in. Rows below the view have all been cleared. Every query takes
+ * absolute level rows, but only visible bricks can be hit or claimed: an explosion reaching the
+ * top of the view stops there, and the bricks above survive until they scroll into view. Memory
+ * use depends on the width of the level, not on its height.
+ */
+public class BrickField extends GameObject {
+    /**
+     * Layer holding the brick field. Rendered like {@link Layer#STATIC_OBJECTS}, but excluded from
+     * the engine's collision checks.
+     */
+    public static final int LAYER = Layer.STATIC_OBJECTS + 1;
+
+    private static final int INITIAL_STRATEGIES = 16;
+
+    private final int rows;
+    private final int cols;
+    private final float[] colX;
+    private final float top;
+    private final float brickWidth;
+    private final float brickHeight;
+    private final float colPitch;
+    private final float rowPitch;
+    private final Vector2 brickDimensions;
+    private final Renderable brickImage;
+
+    // resident rows, in a ring: row r lives in slot r % windowRows, its cells at slot * cols + col
+    private final int windowRows;
+    private final int visibleRows;
+    private int viewRow = 0; // first visible row
+    private final long[] alive;
+    private final int[] strategyIds;
+    private final int[] rowAliveCounts; // per slot
+
+    // paged fields only: the level behind the window and its strategies
+    private final Level level;
+    private IntFunction<CollisionStrategy> strategyOfCode;
+    private final int[] strategyIdsByCode;
+
+    private CollisionStrategy[] strategies = new CollisionStrategy[INITIAL_STRATEGIES];
+    private final IdentityHashMap<CollisionStrategy, Integer> strategyIndex = new IdentityHashMap<>();
+    private int strategyCount = 0;
+    private int aliveCount = 0;
+    private int strikes = 0;
+
+    // per strategy id, the destroyed-brick counters of every type the strategy combines; null
+    // when metrics are off
+    private MetricsRegistry metrics;
+    private String destroyedPrefix;
+    private LongAdder[][] destroyedCounters;
+
+    // cached drawing of every live brick above drawBottom, in field-local coordinates; null until
+    // first rendered
+    private float drawBottom = Float.POSITIVE_INFINITY;
+    private BufferedImage layer;
+    private Graphics2D layerEraser;
+
+    /**
+     * Construct an empty field, with every row resident and visible.
+     *
+     * @param rows number of rows
+     * @param cols number of bricks per row
+     * @param left x coordinate of the left edge of column 0
+     * @param top y coordinate of the top edge of row 0
+     * @param brickWidth width of each brick
+     * @param brickHeight height of each brick
+     * @param hGap horizontal gap between bricks
+     * @param vGap vertical gap between rows
+     * @param brickImage renderable drawn for every live brick; may be null
+     */
+    public BrickField(int rows, int cols, float left, float top,
+                      float brickWidth, float brickHeight, float hGap, float vGap,
+                      Renderable brickImage) {
+        this(rows, cols, rows, rows, null, left, top, brickWidth, brickHeight, hGap, vGap,
+                brickImage);
+    }
+
+    /**
+     * Construct a field holding a level. If the level has more rows than {@code visibleRows},
+     * rows are paged: {@code visibleRows} rows are shown, starting at the bottom of the level,
+     * and as many again are kept resident above them. The field is empty until
+     * {@link #populate(IntFunction)} gives it the strategies of the level's cell codes.
+     *
+     * @param level the brick layout
+     * @param visibleRows number of rows shown at a time
+     * @param left x coordinate of the left edge of column 0
+     * @param top y coordinate of the top edge of the first visible row
+     * @param brickWidth width of each brick
+     * @param brickHeight height of each brick
+     * @param hGap horizontal gap between bricks
+     * @param vGap vertical gap between rows
+     * @param brickImage renderable drawn for every live brick; may be null
+     */
+    public BrickField(Level level, int visibleRows,
+                      float left, float top,
+                      float brickWidth, float brickHeight, float hGap, float vGap,
+                      Renderable brickImage) {
+        this(level.getRows(), level.getCols(), Math.min(visibleRows, level.getRows()),
+                Math.min(2 * visibleRows, level.getRows()), level,
+                left, top, brickWidth, brickHeight, hGap, vGap, brickImage);
+        viewRow = rows - this.visibleRows;
+    }
+
+    private BrickField(int rows, int cols, int visibleRows, int windowRows, Level level,
+                       float left, float top,
+                       float brickWidth, float brickHeight, float hGap, float vGap,
+                       Renderable brickImage) {
+        super(new Vector2(left, top),
+                new Vector2(cols * (brickWidth + hGap) - hGap,
+                        visibleRows * (brickHeight + vGap) - vGap),
+                null);
+        this.rows = rows;
+        this.cols = cols;
+        this.top = top;
+        this.brickWidth = brickWidth;
+        this.brickHeight = brickHeight;
+        this.colPitch = brickWidth + hGap;
+        this.rowPitch = brickHeight + vGap;
+        this.brickDimensions = new Vector2(brickWidth, brickHeight);
+        this.brickImage = brickImage;
+
+        this.colX = new float[cols];
+        for (int col = 0; col < cols; col++) colX[col] = left + col * colPitch;
+
+        this.visibleRows = visibleRows;
+        this.windowRows = windowRows;
+        int cells = windowRows * cols;
+        this.alive = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+        this.strategyIds = new int[cells];
+        this.rowAliveCounts = new int[windowRows];
+
+        this.level = level;
+        if (level != null) {
+            this.strategyIdsByCode = new int[Level.CODE_LIMIT];
+            Arrays.fill(strategyIdsByCode, -1);
+            this.aliveCount = level.getBrickCount();
+        } else {
+            this.strategyIdsByCode = null;
+        }
+    }
+
+    /**
+     * Give a field built over a level the strategies of its cell codes, and load its first rows.
+     * Must be called once, before the field is used.
+     *
+     * @param strategyOfCode strategy of a non-empty cell code; called at most once per code
+     */
+    public void populate(IntFunction<CollisionStrategy> strategyOfCode) {
+        this.strategyOfCode = strategyOfCode;
+        for (int row = windowFirst(); row < rows; row++) pageIn(row);
+        invalidateLayer();
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return number of bricks per row
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @return number of live bricks
+     */
+    public int getAliveCount() { return aliveCount; }
+
+    /**
+     * @param col column index
+     * @return x coordinate of the left edge of the column
+     */
+    public float cellX(int col) { return colX[col]; }
+
+    /**
+     * @param row row index
+     * @return y coordinate of the top edge of the row at the current view; rows outside the
+     *         view lie above or below the field
+     */
+    public float cellY(int row) { return top + (row - viewRow) * rowPitch; }
+
+    /**
+     * @return the first visible row
+     */
+    public int getViewRow() { return viewRow; }
+
+    /**
+     * Move the view up past every cleared row at its bottom, paging in the rows that enter the
+     * resident window. Call between frames, never during a sweep; does nothing unless the field
+     * pages rows.
+     *
+     * @return number of rows the view moved
+     */
+    public int advanceView() {
+        int moved = 0;
+        while (viewRow > 0 && rowAliveCounts[slotOf(viewRow + visibleRows - 1)] == 0) {
+            // the cleared bottom row leaves the window; its slot takes the row entering at the top
+            viewRow--;
+            moved++;
+            int entering = windowFirst();
+            if (entering >= 0) pageIn(entering);
+        }
+        if (moved > 0) invalidateLayer();
+        return moved;
+    }
+
+    /**
+     * Only draw the bricks above {@code bottom}, such as the bottom edge of the window. Bricks
+     * below it still exist and can be hit; they are just never drawn.
+     *
+     * @param bottom y coordinate below which nothing is drawn
+     */
+    public void clipTo(float bottom) {
+        this.drawBottom = bottom;
+        invalidateLayer();
+    }
+
+    /**
+     * Count destroyed bricks per strategy type in {@code metrics}, under the counters
+     * {@code prefix + type}. A brick combining several special types counts once for each.
+     * Types are taken from {@link CollisionStrategy#getName()}, split on {@code +}.
+     *
+     * @param metrics registry holding the counters
+     * @param prefix name prefix of the counters
+     */
+    public void countDestroyedIn(MetricsRegistry metrics, String prefix) {
+        this.metrics = metrics;
+        this.destroyedPrefix = prefix;
+        this.destroyedCounters = new LongAdder[strategies.length][];
+        for (int id = 0; id < strategyCount; id++) {
+            destroyedCounters[id] = destroyedCountersOf(strategies[id]);
+        }
+    }
+
+    /**
+     * Return the number of brick strategies run since the previous call, and restart counting.
+     *
+     * @return strategies run
+     */
+    public int takeStrikes() {
+        int taken = strikes;
+        strikes = 0;
+        return taken;
+    }
+
+    /**
+     * Mix the alive bit of every cell into a state digest.
+     *
+     * @param hash the digest to add to
+     */
+    public void hashInto(StateHash hash) {
+        for (long word : alive) hash.add(word);
+        hash.add(viewRow).add(aliveCount);
+    }
+
+    /**
+     * Put a live brick with the given strategy into a cell of a field without a level.
+     *
+     * @param row row index
+     * @param col column index
+     * @param strategy strategy executed when the brick is hit
+     * @throws IllegalStateException if the field holds a level
+     */
+    public void set(int row, int col, CollisionStrategy strategy) {
+        if (level != null) throw new IllegalStateException("the field holds a level");
+        int cell = row * cols + col;
+        strategyIds[cell] = idOf(strategy);
+        if (!isResidentAlive(cell)) {
+            alive[cell >>> 6] |= 1L << cell;
+            rowAliveCounts[row]++;
+            aliveCount++;
+            invalidateLayer();
+        }
+    }
+
+    /**
+     * @param row row index
+     * @param col column index
+     * @return true if the cell is visible and holds a live brick; bricks in rows above the view
+     *         are not alive yet
+     */
+    public boolean isAlive(int row, int col) {
+        if (row < viewRow || row >= viewRow + visibleRows || col < 0 || col >= cols) return false;
+        return isResidentAlive(slotOf(row) * cols + col);
+    }
+
+    /**
+     * Clear a live, visible brick from its cell. Each brick can be claimed exactly once, which
+     * is how the broadphase and explosion cascades make sure a brick's strategy runs only once.
+     * Cells outside the view cannot be claimed, so cascades never reach bricks the player has not
+     * seen.
+     *
+     * @param row row index
+     * @param col column index
+     * @return true if the cell held a live brick, which is now gone
+     */
+    public boolean claim(int row, int col) {
+        if (!isAlive(row, col)) return false;
+        aliveCount--;
+        int slot = slotOf(row);
+        int cell = slot * cols + col;
+        alive[cell >>> 6] &= ~(1L << cell);
+        rowAliveCounts[slot]--;
+        if (layerEraser != null) {
+            Vector2 topLeft = getTopLeftCorner();
+            float x = colX[col] - topLeft.x();
+            float y = cellY(row) - topLeft.y();
+            int x0 = (int) Math.floor(x);
+            int y0 = (int) Math.floor(y);
+            layerEraser.fillRect(x0, y0,
+                    (int) Math.ceil(x + brickWidth) - x0, (int) Math.ceil(y + brickHeight) - y0);
+        }
+        return true;
+    }
+
+    /**
+     * Run the strategy of the brick at a cell, passing it a materialized {@link Brick} view.
+     * Callers are expected to have claimed the cell first.
+     *
+     * @param row row index
+     * @param col column index
+     * @param hitter the object that hit the brick
+     */
+    public void strike(int row, int col, GameObject hitter) {
+        strikes++;
+        int id = strategyIdOf(row, col);
+        if (destroyedCounters != null) {
+            for (LongAdder counter : destroyedCounters[id]) counter.increment();
+        }
+        materialize(row, col).onCollisionEnter(hitter, null);
+    }
+
+    /**
+     * Create a {@link Brick} view of a cell, positioned where the brick is drawn.
+     *
+     * @param row row index
+     * @param col column index
+     * @return a new brick view carrying the cell's strategy
+     */
+    public Brick materialize(int row, int col) {
+        CollisionStrategy strategy = strategies[strategyIdOf(row, col)];
+        return new Brick(new Vector2(colX[col], cellY(row)), brickDimensions, this, row, col,
+                strategy);
+    }
+
+    /**
+     * Sweep a moving box against the live bricks along its path and record the earliest impact
+     * in {@code hit}. Only the visible cells covered by the box's swept bounds are tested.
+     *
+     * @param x0 left edge of the box at the start of the sweep
+     * @param y0 top edge of the box at the start of the sweep
+     * @param x1 right edge of the box at the start of the sweep
+     * @param y1 bottom edge of the box at the start of the sweep
+     * @param dx horizontal displacement over the sweep
+     * @param dy vertical displacement over the sweep
+     * @param hit earliest impact so far; updated if a brick is hit earlier
+     */
+    void sweep(float x0, float y0, float x1, float y1, float dx, float dy,
+               CollisionWorld.Hit hit) {
+        float left = Math.min(x0, x0 + dx);
+        float right = Math.max(x1, x1 + dx);
+        float top = Math.min(y0, y0 + dy);
+        float bottom = Math.max(y1, y1 + dy);
+
+        int firstCol = Math.max(0, (int) Math.floor((left - colX[0]) / colPitch));
+        int lastCol = Math.min(cols - 1, (int) Math.floor((right - colX[0]) / colPitch));
+        int firstRow = viewRow + Math.max(0, (int) Math.floor((top - this.top) / rowPitch));
+        int lastRow = viewRow + Math.min(visibleRows - 1,
+                (int) Math.floor((bottom - this.top) / rowPitch));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            float by0 = cellY(row);
+            int slotBase = slotOf(row) * cols;
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (!isResidentAlive(slotBase + col)) continue;
+                float bx0 = colX[col];
+                CollisionWorld.sweepBox(x0, y0, x1, y1, dx, dy,
+                        bx0, by0, bx0 + brickWidth, by0 + brickHeight, row, col, hit);
+            }
+        }
+    }
+
+    /**
+     * Draw every live brick with a single blit of the cached layer image, building the layer
+     * first if needed.
+     *
+     * @param g graphics context
+     * @param camera active camera; the game does not use one, so field coordinates are screen
+     *               coordinates
+     */
+    @Override
+    public void render(Graphics2D g, Camera camera) {
+        if (brickImage == null || aliveCount == 0 || getTopLeftCorner().y() >= drawBottom) return;
+        if (layer == null) buildLayer();
+        Vector2 topLeft = getTopLeftCorner();
+        g.drawImage(layer, Math.round(topLeft.x()), Math.round(topLeft.y()), null);
+    }
+
+    /*====== Helpers =======*/
+    private boolean isResidentAlive(int cell) {
+        return (alive[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return the first resident row; may be negative near the top of the level
+     */
+    private int windowFirst() {
+        return viewRow + visibleRows - windowRows;
+    }
+
+    private int slotOf(int row) {
+        return row % windowRows;
+    }
+
+    /**
+     * @return the strategy table id of the brick at a live or just-claimed resident cell
+     */
+    private int strategyIdOf(int row, int col) {
+        return strategyIds[slotOf(row) * cols + col];
+    }
+
+    private int strategyIdOfCode(int code) {
+        int id = strategyIdsByCode[code];
+        if (id < 0) {
+            id = idOf(strategyOfCode.apply(code));
+            strategyIdsByCode[code] = id;
+        }
+        return id;
+    }
+
+    /**
+     * Load a level row into its resident slot. Rows are paged in before they become visible, so
+     * none of their bricks has been destroyed yet.
+     */
+    private void pageIn(int row) {
+        int slot = slotOf(row);
+        int count = 0;
+        for (int col = 0; col < cols; col++) {
+            int cell = slot * cols + col;
+            int code = level.getCode(row, col);
+            if (code != Level.EMPTY) {
+                strategyIds[cell] = strategyIdOfCode(code);
+                alive[cell >>> 6] |= 1L << cell;
+                count++;
+            } else {
+                alive[cell >>> 6] &= ~(1L << cell);
+            }
+        }
+        rowAliveCounts[slot] = count;
+    }
+
+    /**
+     * Draw every live brick into a fresh layer image, walking only the set bits of the alive
+     * words so fully cleared regions cost nothing.
+     */
+    private void buildLayer() {
+        Vector2 size = getDimensions();
+        Vector2 topLeft = getTopLeftCorner();
+        float height = Math.min(size.y(), drawBottom - topLeft.y());
+        layer = new BufferedImage(Math.max(1, (int) Math.ceil(size.x()) + 1),
+                Math.max(1, (int) Math.ceil(height) + 1), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D painter = layer.createGraphics();
+        try {
+            for (int word = 0; word < alive.length; word++) {
+                long bits = alive[word];
+                while (bits != 0) {
+                    int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int row = rowOfSlot(cell / cols);
+                    if (row < viewRow || cellY(row) >= drawBottom) continue;
+                    int col = cell % cols;
+                    brickImage.render(painter,
+                            new Vector2(colX[col] - topLeft.x(), cellY(row) - topLeft.y()),
+                            brickDimensions, 0, false, false, 1);
+                }
+            }
+        } finally {
+            painter.dispose();
+        }
+        layerEraser = layer.createGraphics();
+        layerEraser.setComposite(AlphaComposite.Clear);
+    }
+
+    /**
+     * @return the resident row held in {@code slot}
+     */
+    private int rowOfSlot(int slot) {
+        int first = windowFirst();
+        return first + Math.floorMod(slot - first, windowRows);
+    }
+
+    /**
+     * Look up one destroyed-brick counter per distinct type combined by {@code strategy}.
+     */
+    private LongAdder[] destroyedCountersOf(CollisionStrategy strategy) {
+        String[] names = strategy.getName().split("\\+");
+        LinkedHashSet<String> types = new LinkedHashSet<>(Arrays.asList(names));
+        LongAdder[] counters = new LongAdder[types.size()];
+        int i = 0;
+        for (String type : types) counters[i++] = metrics.counter(destroyedPrefix + type);
+        return counters;
+    }
+
+    /**
+     * Drop the cached layer so the next render rebuilds it.
+     */
+    private void invalidateLayer() {
+        if (layerEraser != null) layerEraser.dispose();
+        layerEraser = null;
+        layer = null;
+    }
+
+    /**
+     * Return the table id of a strategy, adding it to the table on first use.
+     */
+    private int idOf(CollisionStrategy strategy) {
+        Integer id = strategyIndex.get(strategy);
+        if (id != null) return id;
+        if (strategyCount == strategies.length) {
+            CollisionStrategy[] grown = new CollisionStrategy[strategies.length * 2];
+            System.arraycopy(strategies, 0, grown, 0, strategyCount);
+            strategies = grown;
+            if (destroyedCounters != null) {
+                LongAdder[][] grownCounters = new LongAdder[grown.length][];
+                System.arraycopy(destroyedCounters, 0, grownCounters, 0, strategyCount);
+                destroyedCounters = grownCounters;
+            }
+        }
+        strategies[strategyCount] = strategy;
+        if (destroyedCounters != null) {
+            destroyedCounters[strategyCount] = destroyedCountersOf(strategy);
+        }
+        strategyIndex.put(strategy, strategyCount);
+        return strategyCount++;
+    }
+}
@@ -0,0 +1,206 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * Continuous collision detection for balls and pucks against the static parts of the scene:
+ * the walls and the {@link BrickField}. Instead of moving a ball by a whole frame and then
+ * testing for overlaps, the ball's box is swept along its path and stopped at the earliest time
+ * of impact; the hit is resolved there (the brick's strategy runs, the ball bounces) and the
+ * rest of the frame is swept again from the contact point. Fast balls and long frames therefore
+ * cannot tunnel through thin bricks or walls.
+ * <p>
+ * Walls and bricks are not tested by the engine; paddles and other moving objects still are.
+ */
+public class CollisionWorld {
+    private static final int MAX_IMPACTS_PER_FRAME = 8;
+    private static final int INITIAL_WALLS = 4;
+
+    private final Hit hit = new Hit();
+    private BrickField field;
+    // wall bounds, four floats per wall: left, top, right, bottom
+    private float[] walls = new float[INITIAL_WALLS * 4];
+    private int wallCount = 0;
+    private int impacts = 0;
+
+    /**
+     * Earliest impact found by a sweep. Reused across sweeps.
+     */
+    static class Hit {
+        private float time;
+        private Vector2 normal;
+        private int row;
+        private int col;
+
+        /**
+         * Forget the previous impact; only impacts before {@code limit} will be recorded.
+         */
+        void reset(float limit) {
+            time = limit;
+            normal = null;
+            row = -1;
+            col = -1;
+        }
+
+        /**
+         * @return true if an impact was recorded
+         */
+        boolean found() { return normal != null; }
+    }
+
+    /**
+     * Add a static wall. Its bounds are read once, so walls must not move.
+     *
+     * @param wall the wall
+     */
+    public void addWall(GameObject wall) {
+        if (wallCount * 4 == walls.length) {
+            float[] grown = new float[walls.length * 2];
+            System.arraycopy(walls, 0, grown, 0, walls.length);
+            walls = grown;
+        }
+        Vector2 topLeft = wall.getTopLeftCorner();
+        Vector2 size = wall.getDimensions();
+        int base = wallCount * 4;
+        walls[base] = topLeft.x();
+        walls[base + 1] = topLeft.y();
+        walls[base + 2] = topLeft.x() + size.x();
+        walls[base + 3] = topLeft.y() + size.y();
+        wallCount++;
+    }
+
+    /**
+     * @param field the brick field balls are swept against; may be null while there is none
+     */
+    public void setBrickField(BrickField field) {
+        this.field = field;
+    }
+
+    /**
+     * Move a ball along its velocity for up to {@code deltaTime}, resolving every impact with a
+     * wall or a brick on the way. The ball is left at its last contact point with its bounced
+     * velocity.
+     *
+     * @param ball the ball or puck to move
+     * @param deltaTime length of the frame, in seconds
+     * @return time left in the frame; the ball can move freely for that long
+     */
+    public float advance(Ball ball, float deltaTime) {
+        float remaining = deltaTime;
+        for (int impact = 0; impact < MAX_IMPACTS_PER_FRAME && remaining > 0; impact++) {
+            Vector2 topLeft = ball.getTopLeftCorner();
+            Vector2 size = ball.getDimensions();
+            Vector2 velocity = ball.getVelocity();
+            float x0 = topLeft.x();
+            float y0 = topLeft.y();
+            float dx = velocity.x() * remaining;
+            float dy = velocity.y() * remaining;
+
+            hit.reset(1f);
+            sweepWalls(x0, y0, x0 + size.x(), y0 + size.y(), dx, dy);
+            if (field != null) field.sweep(x0, y0, x0 + size.x(), y0 + size.y(), dx, dy, hit);
+            if (!hit.found()) return remaining;
+
+            if (hit.time > 0) {
+                ball.setTopLeftCorner(new Vector2(x0 + dx * hit.time, y0 + dy * hit.time));
+                remaining -= remaining * hit.time;
+            }
+            Vector2 normal = hit.normal;
+            impacts++;
+            if (hit.row >= 0 && field.claim(hit.row, hit.col)) {
+                field.strike(hit.row, hit.col, ball);
+            }
+            ball.bounce(normal);
+        }
+        // too many impacts in one frame (e.g. wedged in a corner): stop here until the next frame
+        return 0;
+    }
+
+    /**
+     * Return the number of impacts resolved since the previous call, and restart counting.
+     *
+     * @return impacts resolved
+     */
+    public int takeImpacts() {
+        int taken = impacts;
+        impacts = 0;
+        return taken;
+    }
+
+    /*====== Helpers =======*/
+    private void sweepWalls(float x0, float y0, float x1, float y1, float dx, float dy) {
+        for (int i = 0; i < wallCount * 4; i += 4) {
+            sweepBox(x0, y0, x1, y1, dx, dy, walls[i], walls[i + 1], walls[i + 2], walls[i + 3],
+                    -1, -1, hit);
+        }
+    }
+
+    /**
+     * Sweep the box [{@code x0},{@code x1}]x[{@code y0},{@code y1}] by ({@code dx},{@code dy})
+     * against a static box, and record the impact in {@code hit} if it is the earliest so far.
+     * A box that already overlaps the target counts as hitting it at time 0, along the axis of
+     * least penetration. Impacts the moving box is not approaching are ignored, so a box resting
+     * against a surface and moving away from it is free to go.
+     */
+    static void sweepBox(float x0, float y0, float x1, float y1, float dx, float dy,
+                         float bx0, float by0, float bx1, float by1,
+                         int row, int col, Hit hit) {
+        float entryX;
+        float exitX;
+        if (dx > 0) {
+            entryX = (bx0 - x1) / dx;
+            exitX = (bx1 - x0) / dx;
+        } else if (dx < 0) {
+            entryX = (bx1 - x0) / dx;
+            exitX = (bx0 - x1) / dx;
+        } else if (x1 > bx0 && x0 < bx1) {
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else {
+            return;
+        }
+
+        float entryY;
+        float exitY;
+        if (dy > 0) {
+            entryY = (by0 - y1) / dy;
+            exitY = (by1 - y0) / dy;
+        } else if (dy < 0) {
+            entryY = (by1 - y0) / dy;
+            exitY = (by0 - y1) / dy;
+        } else if (y1 > by0 && y0 < by1) {
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        } else {
+            return;
+        }
+
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry >= exit || exit <= 0 || entry >= hit.time) return;
+
+        Vector2 normal;
+        if (entry < 0) {
+            // already overlapping at the start of the sweep
+            float overlapX = Math.min(x1, bx1) - Math.max(x0, bx0);
+            float overlapY = Math.min(y1, by1) - Math.max(y0, by0);
+            if (overlapX < overlapY) {
+                normal = (x0 + x1) < (bx0 + bx1) ? Vector2.LEFT : Vector2.RIGHT;
+            } else {
+                normal = (y0 + y1) < (by0 + by1) ? Vector2.UP : Vector2.DOWN;
+            }
+            entry = 0;
+        } else if (entryX > entryY) {
+            normal = dx > 0 ? Vector2.LEFT : Vector2.RIGHT;
+        } else {
+            normal = dy > 0 ? Vector2.UP : Vector2.DOWN;
+        }
+        if (dx * normal.x() + dy * normal.y() >= 0) return;
+
+        hit.time = entry;
+        hit.normal = normal;
+        hit.row = row;
+        hit.col = col;
+    }
+}
@@ -3,54 +3,58 @@ package bricker.gameobjects;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
+import danogl.util.Counter;
 import danogl.util.Vector2;
 
 /**
  * A temporary extra paddle that behaves like the main paddle but has a limited number of hits.
- * When its hit counter reaches zero it removes itself from the game objects collection.
+ * When its hit counter reaches zero it queues its own removal from the game.
  *
- * Note: A static presence flag is used to ensure at most one ExtraPaddle exists at any time.
+ * Note: A per-game counter of present extra paddles is used to ensure at most one ExtraPaddle
+ * exists at any time. The counter belongs to the game, so separate games never see each other's
+ * paddles.
  */
 public class ExtraPaddle extends Paddle {
-    private final GameObjectCollection collection;
+    private final MutationQueue mutations;
+    private final Counter extraPaddles;
     private int hitsLeft = 4;
 
-    // global presence flag: true if an ExtraPaddle instance has been created and not yet removed
-    private static boolean present = false;
-
     /**
-     * Return whether any ExtraPaddle is currently present in the game.
+     * Construct an ExtraPaddle and count it as present. Callers should check that
+     * {@code extraPaddles} is zero before creating to avoid multiple ExtraPaddles.
      *
-     * @return true if an ExtraPaddle exists; false otherwise
-     */
-    public static boolean isPresent() { return present; }
-
-    /**
-     * Construct an ExtraPaddle and mark presence. Callers should check {@link #isPresent()}
-     * before creating to avoid multiple ExtraPaddles.
+     * @param topLeftCorner initial top-left corner
+     * @param size width and height of the paddle
+     * @param renderable visual representation
+     * @param inputListener user input listener that handles left/right key presses
+     * @param windowDimensions current window size for bounds checking
+     * @param mutations queue the paddle's removal is deferred to
+     * @param extraPaddles the game's count of present extra paddles
      */
     public ExtraPaddle(Vector2 topLeftCorner,
                        Vector2 size,
                        Renderable renderable,
                        UserInputListener inputListener,
                        Vector2 windowDimensions,
-                       GameObjectCollection collection) {
+                       MutationQueue mutations,
+                       Counter extraPaddles) {
         super(topLeftCorner, size, renderable, inputListener, windowDimensions);
-        this.collection = collection;
-        present = true;
+        this.mutations = mutations;
+        this.extraPaddles = extraPaddles;
+        extraPaddles.increment();
     }
 
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        hitsLeft--;
-        if (hitsLeft <= 0) {
+        // only the hit that uses the paddle up counts it out: removal is deferred to the end of
+        // the frame, and further hits before then must not decrement the counter again
+        if (--hitsLeft == 0) {
             // clear presence before actual removal
-            present = false;
-            collection.removeGameObject(this);
+            extraPaddles.decrement();
+            mutations.remove(this);
         }
     }
 }
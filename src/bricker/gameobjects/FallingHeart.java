@@ -2,7 +2,6 @@ package bricker.gameobjects;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -13,10 +12,11 @@ import danogl.util.Vector2;
 public class FallingHeart extends GameObject {
     private static final float FALLING_HEART_SPEED = 100f;
 
-    private final GameObjectCollection gameObjects;
-    private final Vector2 windowDimensions;
+    private final MutationQueue mutations;
     private final GameObject originalPaddle; // Reference to the original paddle (not ExtraPaddle)
     private final LifeRestoreCallback lifeRestoreCallback;
+    // top-left y at which the heart's center passes the bottom of the window
+    private final float removalY;
 
     /**
      * Callback interface for restoring a life when heart is collected.
@@ -34,19 +34,19 @@ public class FallingHeart extends GameObject {
      * @param topLeftCorner Position of the object.
      * @param dimensions Width and height in window coordinates.
      * @param renderable The renderable representing the object.
-     * @param gameObjects Game objects collection for removal
+     * @param mutations Queue the heart's removal is deferred to
      * @param windowDimensions Window dimensions for boundary checking
      * @param originalPaddle Reference to the original paddle (for collision detection)
      * @param lifeRestoreCallback Callback to restore a life when collected
      */
     public FallingHeart(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                        GameObjectCollection gameObjects, Vector2 windowDimensions,
+                        MutationQueue mutations, Vector2 windowDimensions,
                         GameObject originalPaddle, LifeRestoreCallback lifeRestoreCallback) {
         super(topLeftCorner, dimensions, renderable);
-        this.gameObjects = gameObjects;
-        this.windowDimensions = windowDimensions;
+        this.mutations = mutations;
         this.originalPaddle = originalPaddle;
         this.lifeRestoreCallback = lifeRestoreCallback;
+        this.removalY = windowDimensions.y() - dimensions.y() / 2;
 
         // Set velocity to fall down at constant speed
         setVelocity(new Vector2(0, FALLING_HEART_SPEED));
@@ -74,7 +74,7 @@ public class FallingHeart extends GameObject {
         super.onCollisionEnter(other, collision);
         // Restore a life and remove the heart
         lifeRestoreCallback.restoreLife();
-        gameObjects.removeGameObject(this);
+        mutations.remove(this);
     }
 
     /**
@@ -86,9 +86,8 @@ public class FallingHeart extends GameObject {
     public void update(float deltaTime) {
         super.update(deltaTime);
         // Check if heart has exited the screen boundaries (below the screen)
-        Vector2 center = getCenter();
-        if (center.y() > windowDimensions.y()) {
-            gameObjects.removeGameObject(this);
+        if (getTopLeftCorner().y() > removalY) {
+            mutations.remove(this);
         }
     }
 }
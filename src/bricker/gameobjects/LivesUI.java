@@ -1,10 +1,10 @@
 package bricker.gameobjects;
 
+import bricker.assets.AssetRegistry;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.Renderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
@@ -37,20 +37,20 @@ public class LivesUI {
      * Construct a LivesUI component and add it to the provided game object collection.
      *
      * @param collection game object collection to add UI elements to
-     * @param imageReader image reader to load the heart image
+     * @param assets shared asset registry providing the heart image
      * @param windowDimensions current window dimensions
      * @param maxLives maximum number of lives displayable
      * @param initialLives initial displayed lives
      */
     public LivesUI(GameObjectCollection collection,
-                   ImageReader imageReader,
+                   AssetRegistry assets,
                    Vector2 windowDimensions,
                    int maxLives,
                    int initialLives) {
         this.collection = collection;
         this.windowDimensions = windowDimensions;
         this.maxLives = maxLives;
-        this.heartImg = imageReader.readImage("assets/heart.png", true);
+        this.heartImg = assets.image(AssetRegistry.HEART_IMAGE);
         this.hearts = new GameObject[maxLives];
 
         Vector2 textPos = new Vector2(
@@ -0,0 +1,143 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Frame-scoped queue of structural changes to the {@link GameObjectCollection}. Strategies and
+ * game objects queue additions and removals from inside collision callbacks, and the game
+ * manager applies them in one batch at the end of the frame. At most one pending change is kept
+ * per object: removing an object twice in a frame is reported as a failed second removal, and an
+ * add followed by a remove (or a remove followed by an add) of the same object cancels out.
+ */
+public class MutationQueue {
+    private final GameObjectCollection collection;
+    private final IdentityHashMap<GameObject, Mutation> pending = new IdentityHashMap<>();
+    private final ArrayList<Mutation> ordered = new ArrayList<>();
+    private long addCount = 0;
+
+    /**
+     * A single queued change.
+     */
+    private static class Mutation {
+        private final GameObject gameObject;
+        private final int layer;
+        private final boolean isAdd;
+        private boolean cancelled = false;
+
+        private Mutation(GameObject gameObject, int layer, boolean isAdd) {
+            this.gameObject = gameObject;
+            this.layer = layer;
+            this.isAdd = isAdd;
+        }
+    }
+
+    /**
+     * Construct an empty queue over a collection.
+     *
+     * @param collection the collection the queued changes are applied to
+     */
+    public MutationQueue(GameObjectCollection collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * Queue adding an object to the default layer.
+     *
+     * @param gameObject the object to add
+     */
+    public void add(GameObject gameObject) {
+        add(gameObject, Layer.DEFAULT);
+    }
+
+    /**
+     * Queue adding an object to a layer.
+     *
+     * @param gameObject the object to add
+     * @param layer target layer
+     */
+    public void add(GameObject gameObject, int layer) {
+        addCount++;
+        Mutation previous = pending.get(gameObject);
+        if (previous != null && !previous.isAdd) {
+            // removed and re-added within the frame: the object simply stays
+            cancel(previous);
+            return;
+        }
+        if (previous != null) return;
+        enqueue(new Mutation(gameObject, layer, true));
+    }
+
+    /**
+     * Queue removing an object from the default layer.
+     *
+     * @param gameObject the object to remove
+     * @return false if the object's removal was already queued this frame
+     */
+    public boolean remove(GameObject gameObject) {
+        return remove(gameObject, Layer.DEFAULT);
+    }
+
+    /**
+     * Queue removing an object from a layer.
+     *
+     * @param gameObject the object to remove
+     * @param layer the layer the object is in
+     * @return false if the object's removal was already queued this frame
+     */
+    public boolean remove(GameObject gameObject, int layer) {
+        Mutation previous = pending.get(gameObject);
+        if (previous != null && previous.isAdd) {
+            // added and removed within the frame: the object never enters the collection
+            cancel(previous);
+            return true;
+        }
+        if (previous != null) return false;
+        enqueue(new Mutation(gameObject, layer, false));
+        return true;
+    }
+
+    /**
+     * Apply all queued changes, removals first, and clear the queue.
+     */
+    public void flush() {
+        if (ordered.isEmpty()) return;
+        for (Mutation mutation : ordered) {
+            if (!mutation.cancelled && !mutation.isAdd) {
+                collection.removeGameObject(mutation.gameObject, mutation.layer);
+            }
+        }
+        for (Mutation mutation : ordered) {
+            if (!mutation.cancelled && mutation.isAdd) {
+                collection.addGameObject(mutation.gameObject, mutation.layer);
+            }
+        }
+        ordered.clear();
+        pending.clear();
+    }
+
+    /**
+     * @return number of changes queued since the last flush, including cancelled ones
+     */
+    public int size() { return ordered.size(); }
+
+    /**
+     * @return number of additions queued since construction, including cancelled ones
+     */
+    public long getAddCount() { return addCount; }
+
+    /*====== Helpers =======*/
+    private void enqueue(Mutation mutation) {
+        pending.put(mutation.gameObject, mutation);
+        ordered.add(mutation);
+    }
+
+    private void cancel(Mutation mutation) {
+        mutation.cancelled = true;
+        pending.remove(mutation.gameObject);
+    }
+}
@@ -10,10 +10,14 @@ import java.awt.event.KeyEvent;
 /**
  * A user-controlled paddle that moves left/right in response to keyboard input.
  * Ensures the paddle stays inside the window horizontal bounds.
+ * The per-frame update allocates no vectors in steady state: velocities are shared constants and
+ * are only set when they change.
  */
 public class Paddle extends GameObject {
 
-    private static final float MOVEMENT_SPEED = 350f;
+    static final float MOVEMENT_SPEED = 350f;
+    private static final Vector2 LEFT_VELOCITY = Vector2.LEFT.mult(MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY = Vector2.RIGHT.mult(MOVEMENT_SPEED);
     private final UserInputListener inputListener;
     private final Vector2 windowDimensions;
 
@@ -37,27 +41,30 @@ public class Paddle extends GameObject {
     }
 
     /**
-     * Update paddle position based on left/right key presses and clamp to window bounds.
+     * Update paddle position based on the steering direction and clamp to window bounds.
      *
      * @param deltaTime elapsed time since last update
      */
     @Override
     public void update(float deltaTime) {
-        Vector2 movementDir = Vector2.ZERO;
-        if(inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            movementDir = movementDir.add(Vector2.LEFT);
+        int direction = steer(deltaTime);
+
+        float maxX = windowDimensions.x() - getDimensions().x();
+        float currentX = getTopLeftCorner().x();
+        // pushing against a wall is the same as standing still, so the clamp below never fires
+        // frame after frame
+        if ((direction < 0 && currentX <= 0f) || (direction > 0 && currentX >= maxX)) {
+            direction = 0;
         }
-        if(inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            movementDir = movementDir.add(Vector2.RIGHT);
+        Vector2 velocity = direction < 0 ? LEFT_VELOCITY : direction > 0 ? RIGHT_VELOCITY : Vector2.ZERO;
+        if (getVelocity() != velocity) {
+            setVelocity(velocity);
         }
-        setVelocity(movementDir.mult(MOVEMENT_SPEED));
         super.update(deltaTime);
 
         Vector2 topLeft = getTopLeftCorner();
         float x = topLeft.x();
         float y = topLeft.y();
-        float width = getDimensions().x();
-        float maxX = windowDimensions.x() - width;
 
         if (x < 0f) {
             setTopLeftCorner(new Vector2(0f, y));
@@ -66,4 +73,21 @@ public class Paddle extends GameObject {
             setTopLeftCorner(new Vector2(maxX, y));
         }
     }
+
+    /**
+     * Choose the direction to move in this frame. The user paddle follows the left/right keys.
+     *
+     * @param deltaTime elapsed time since last update
+     * @return -1 to move left, 1 to move right, 0 to stand still
+     */
+    protected int steer(float deltaTime) {
+        int direction = 0;
+        if(inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            direction--;
+        }
+        if(inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            direction++;
+        }
+        return direction;
+    }
 }
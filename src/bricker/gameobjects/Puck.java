@@ -1,48 +1,91 @@
 package bricker.gameobjects;
 
 
-import danogl.collisions.GameObjectCollection;
-import danogl.gui.Sound;
+import bricker.audio.AudioMixer;
+import bricker.util.GameRandom;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
-import java.util.Random;
-
 /**
  * A puck is a ball variant created by special bricks; it is smaller and moves upward
- * with a random initial angle. Pucks are removed when they fall below the bottom of the window.
+ * with a random initial angle. Pucks are moved, and released when they fall below the bottom of
+ * the window, by their {@link PuckManager}.
  */
 public class Puck extends Ball {
-    private final GameObjectCollection gameObjects;
-    private final Vector2 windowDimensions;
+    private final GameRandom random;
     private final float puckSpeed;
+    // top-left y at which the puck's center passes the bottom of the window
+    private final float releaseY;
+    private boolean live = false;
+    private int liveIndex = -1;
+    private long spawnNumber = -1;
 
     /**
-     * Construct a Puck.
+     * Construct a Puck. Pucks are created by {@link PuckManager#spawn(Vector2)}.
      *
      * @param topLeftCorner initial position
      * @param dimensions size of the puck
      * @param renderable renderable used to draw the puck
      * @param collisionSound sound to play on collision
-     * @param gameObjects collection used to remove the puck when out of bounds
+     * @param random stream the puck draws its launch angles from
      * @param windowDimensions window size for bounds
      * @param puckSpeed speed magnitude for puck
      */
-    public Puck(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                Sound collisionSound, GameObjectCollection gameObjects, Vector2 windowDimensions,
-                float puckSpeed) {
+    Puck(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+         AudioMixer.Clip collisionSound, GameRandom random, Vector2 windowDimensions, float puckSpeed) {
         super(topLeftCorner, dimensions, renderable, collisionSound);
-        this.gameObjects = gameObjects;
-        this.windowDimensions = windowDimensions;
+        this.random = random;
         this.puckSpeed = puckSpeed;
+        this.releaseY = windowDimensions.y() - dimensions.y() / 2;
+    }
+
+    /**
+     * Prepare the puck for a new life: center it and give it a new random upward velocity.
+     *
+     * @param center new center of the puck
+     * @param liveIndex index of the puck in its manager's live list
+     * @param spawnNumber order of this launch among all launches of the manager
+     */
+    void reset(Vector2 center, int liveIndex, long spawnNumber) {
+        setCenter(center);
         setRandomVelocityOnUpperHalf();
+        this.live = true;
+        this.liveIndex = liveIndex;
+        this.spawnNumber = spawnNumber;
+    }
+
+    /**
+     * @return true while the puck is in the game
+     */
+    boolean isLive() { return live; }
+
+    /**
+     * @return index of the puck in its manager's live list
+     */
+    int getLiveIndex() { return liveIndex; }
+
+    /**
+     * @param liveIndex new index of the puck in its manager's live list
+     */
+    void setLiveIndex(int liveIndex) { this.liveIndex = liveIndex; }
+
+    /**
+     * @return order of the puck's latest launch among all launches of its manager
+     */
+    long getSpawnNumber() { return spawnNumber; }
+
+    /**
+     * Mark the puck as no longer in the game.
+     */
+    void markReleased() {
+        live = false;
+        liveIndex = -1;
     }
 
     /**
      * Initialize a random velocity pointing to the upper half of the screen.
      */
     private void setRandomVelocityOnUpperHalf() {
-        Random random = new Random();
         double angle = random.nextDouble() * Math.PI;
         float velX = (float) (puckSpeed * Math.cos(angle));
         float velY = (float) (puckSpeed * Math.sin(angle));
@@ -51,15 +94,27 @@ public class Puck extends Ball {
     }
 
     /**
-     * Remove the puck if it falls below the bottom of the window.
+     * Do nothing: live pucks are moved by their {@link PuckManager}, all in one loop.
+     *
+     * @param deltaTime elapsed time since last update
      */
     @Override
     public void update(float deltaTime) {
+    }
+
+    /**
+     * Move the puck through the frame, sweeping it against walls and bricks.
+     *
+     * @param deltaTime length of the frame, in seconds
+     */
+    void step(float deltaTime) {
         super.update(deltaTime);
-        // Check if puck has exited below the screen
-        Vector2 center = getCenter();
-        if (center.y() > windowDimensions.y()) {
-            gameObjects.removeGameObject(this);
-        }
+    }
+
+    /**
+     * @return true once the puck's center has passed the bottom of the window
+     */
+    boolean isBelowWindow() {
+        return getTopLeftCorner().y() > releaseY;
     }
 }
@@ -0,0 +1,257 @@
+package bricker.gameobjects;
+
+import bricker.audio.AudioMixer;
+import bricker.util.GameRandom;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Owns every {@link Puck} of a game. Pucks break bricks like the ball does, so additional-balls
+ * bricks hit by pucks spawn more pucks and a lucky cascade can grow them exponentially. The
+ * manager keeps the number of live pucks within a budget, applying a {@link Policy} to the
+ * spawns that would exceed it, and moves and despawns all live pucks in a single loop, once per
+ * frame, instead of each puck checking itself in its own update.
+ * <p>
+ * Pucks that fall off screen are kept for reuse and are reset and re-added on the next spawn. At
+ * most {@code poolCapacity} idle pucks are retained; extra released pucks are left to the garbage
+ * collector.
+ */
+public class PuckManager {
+    /**
+     * What to do with a spawn when the live budget is used up.
+     */
+    public enum Policy {
+        /** Do not spawn the puck. */
+        DROP,
+        /** Merge the spawn into the oldest live puck, which is relaunched from the spawn point. */
+        MERGE,
+        /** Spawn the puck as soon as another one leaves the game; waiting spawns beyond the
+         * budget are dropped. */
+        DEFER
+    }
+
+    private final int poolCapacity;
+    private final ArrayDeque<Puck> idle;
+    private final ArrayList<Puck> livePucks = new ArrayList<>();
+    private final ArrayDeque<Vector2> deferredSpawns = new ArrayDeque<>();
+    private final Vector2 puckDimensions;
+    private final Renderable puckImage;
+    private final AudioMixer.Clip collisionSound;
+    private final MutationQueue mutations;
+    private final CollisionWorld collisionWorld;
+    private final GameRandom random;
+    private final Vector2 windowDimensions;
+    private final float puckSpeed;
+    private int maxLive = Integer.MAX_VALUE;
+    private Policy policy = Policy.DROP;
+    private long nextSpawnNumber = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+    private int highWater = 0;
+    private int dropped = 0;
+    private int merged = 0;
+    private int deferred = 0;
+
+    /**
+     * Construct a manager without pucks and without a live budget.
+     *
+     * @param poolCapacity maximum number of idle pucks kept for reuse
+     * @param puckDimensions size of each puck
+     * @param puckImage renderable used to draw pucks
+     * @param collisionSound sound pucks play on collision, or null for silent pucks
+     * @param mutations queue pucks are added and removed through
+     * @param collisionWorld walls and bricks pucks are swept against
+     * @param random stream shared by all pucks for their launch angles
+     * @param windowDimensions window size, used for the off-screen check
+     * @param puckSpeed speed magnitude of spawned pucks
+     */
+    public PuckManager(int poolCapacity,
+                       Vector2 puckDimensions,
+                       Renderable puckImage,
+                       AudioMixer.Clip collisionSound,
+                       MutationQueue mutations,
+                       CollisionWorld collisionWorld,
+                       GameRandom random,
+                       Vector2 windowDimensions,
+                       float puckSpeed) {
+        this.poolCapacity = poolCapacity;
+        this.idle = new ArrayDeque<>(poolCapacity);
+        this.puckDimensions = puckDimensions;
+        this.puckImage = puckImage;
+        this.collisionSound = collisionSound;
+        this.mutations = mutations;
+        this.collisionWorld = collisionWorld;
+        this.random = random;
+        this.windowDimensions = windowDimensions;
+        this.puckSpeed = puckSpeed;
+    }
+
+    /**
+     * Limit the number of pucks in the game at the same time.
+     *
+     * @param maxLive largest number of live pucks, at least 1; {@link Integer#MAX_VALUE} for no
+     *                limit
+     * @param policy what to do with spawns beyond {@code maxLive}
+     */
+    public void setBudget(int maxLive, Policy policy) {
+        if (maxLive < 1) throw new IllegalArgumentException("maxLive must be at least 1: " + maxLive);
+        this.maxLive = maxLive;
+        this.policy = policy;
+    }
+
+    /**
+     * Spawn a puck centered at {@code center} with a fresh random upward velocity, within the
+     * live budget.
+     *
+     * @param center center of the spawned puck
+     * @return the spawned or relaunched puck, or null if the spawn was dropped or deferred
+     */
+    public Puck spawn(Vector2 center) {
+        if (livePucks.size() < maxLive) return launch(center);
+        switch (policy) {
+            case MERGE:
+                merged++;
+                Puck oldest = oldestLive();
+                oldest.reset(center, oldest.getLiveIndex(), nextSpawnNumber++);
+                return oldest;
+            case DEFER:
+                if (deferredSpawns.size() < maxLive) {
+                    deferred++;
+                    deferredSpawns.add(center);
+                    return null;
+                }
+                dropped++;
+                return null;
+            case DROP:
+            default:
+                dropped++;
+                return null;
+        }
+    }
+
+    /**
+     * Move every live puck through the frame, sweeping it against walls and bricks, and release
+     * the pucks that fell below the window. Pucks spawned during the loop start moving on the
+     * next frame. Deferred spawns are then launched while the budget allows.
+     *
+     * @param deltaTime length of the frame, in seconds
+     */
+    public void update(float deltaTime) {
+        // backwards, so a swap-remove only moves a puck that was already updated (or was
+        // spawned during this loop) into the released slot
+        for (int i = livePucks.size() - 1; i >= 0; i--) {
+            Puck puck = livePucks.get(i);
+            puck.step(deltaTime);
+            if (puck.isBelowWindow()) release(puck);
+        }
+        while (!deferredSpawns.isEmpty() && livePucks.size() < maxLive) {
+            launch(deferredSpawns.poll());
+        }
+    }
+
+    /**
+     * Remove a live puck from the game and keep it for reuse if the pool has room.
+     * Releasing a puck that is not live has no effect.
+     *
+     * @param puck the puck to release
+     */
+    public void release(Puck puck) {
+        if (!puck.isLive()) return;
+        // swap-remove from the live list, keeping each puck's index current
+        int index = puck.getLiveIndex();
+        Puck last = livePucks.remove(livePucks.size() - 1);
+        if (last != puck) {
+            livePucks.set(index, last);
+            last.setLiveIndex(index);
+        }
+        puck.markReleased();
+        mutations.remove(puck);
+        if (idle.size() < poolCapacity) idle.push(puck);
+    }
+
+    /**
+     * @return number of pucks currently in the game
+     */
+    public int getLive() { return livePucks.size(); }
+
+    /**
+     * Return a puck currently in the game. Indices are only stable until the next release.
+     *
+     * @param index index in {@code 0..getLive()-1}
+     * @return the live puck at {@code index}
+     */
+    public Puck getLivePuck(int index) { return livePucks.get(index); }
+
+    /**
+     * @return number of spawns waiting for the live count to drop below the budget
+     */
+    public int getWaiting() { return deferredSpawns.size(); }
+
+    /**
+     * @return number of spawns served by a recycled puck
+     */
+    public int getHits() { return hits; }
+
+    /**
+     * @return number of spawns that had to allocate a new puck
+     */
+    public int getMisses() { return misses; }
+
+    /**
+     * @return the largest number of pucks that were in the game at the same time
+     */
+    public int getHighWater() { return highWater; }
+
+    /**
+     * @return number of spawns dropped because the budget was used up
+     */
+    public int getDropped() { return dropped; }
+
+    /**
+     * @return number of spawns merged into a live puck
+     */
+    public int getMerged() { return merged; }
+
+    /**
+     * @return number of spawns deferred until a puck left the game
+     */
+    public int getDeferred() { return deferred; }
+
+    /*====== Helpers =======*/
+    /**
+     * Take a puck from the pool (or create one if the pool is empty), launch it from
+     * {@code center} and add it to the game.
+     */
+    private Puck launch(Vector2 center) {
+        Puck puck = idle.poll();
+        if (puck != null) {
+            hits++;
+        } else {
+            misses++;
+            puck = new Puck(center, puckDimensions, puckImage, collisionSound, random,
+                    windowDimensions, puckSpeed);
+            puck.setCollisionWorld(collisionWorld);
+        }
+        puck.reset(center, livePucks.size(), nextSpawnNumber++);
+        livePucks.add(puck);
+        mutations.add(puck);
+        if (livePucks.size() > highWater) highWater = livePucks.size();
+        return puck;
+    }
+
+    /**
+     * @return the live puck spawned or relaunched the longest ago
+     */
+    private Puck oldestLive() {
+        Puck oldest = livePucks.get(0);
+        for (int i = 1; i < livePucks.size(); i++) {
+            Puck puck = livePucks.get(i);
+            if (puck.getSpawnNumber() < oldest.getSpawnNumber()) oldest = puck;
+        }
+        return oldest;
+    }
+}
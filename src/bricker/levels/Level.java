@@ -0,0 +1,201 @@
+package bricker.levels;
+
+import bricker.brick_strategies.StrategyFactory;
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+import bricker.util.GameRandom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A fixed brick layout: a grid of one-byte cell codes. Code {@link #EMPTY} is a cell without a
+ * brick, {@link #BASIC} a plain brick, and every other code a brick combining up to
+ * {@link StrategyFactory#MAX_SPECIALS} special behaviors, stored as base-5 digits:
+ * {@code code = 1 + d0 + 5*d1 + 25*d2}, where each digit is 0 for "none" or 1 to 4 for one of
+ * the special types, in execution order. Digits are packed from d0, so every combination has
+ * exactly one code, and codes stay below {@link #CODE_LIMIT}.
+ * <p>
+ * Levels are read and written by {@link LevelFile}. The cells may live outside the heap, in a
+ * memory-mapped file, so a level costs no heap memory however tall it is.
+ */
+public class Level {
+    /** Code of a cell without a brick. */
+    public static final int EMPTY = 0;
+    /** Code of a brick with no special behavior. */
+    public static final int BASIC = 1;
+    /** Every valid code is below this limit. */
+    public static final int CODE_LIMIT = 126;
+
+    private static final int RADIX = 5;
+    private static final float SPECIAL_CHANCE = 0.5f;
+
+    // special types by base-5 digit; digit 0 means no special
+    private static final StrategyType[] DIGIT_TYPES = {
+            null,
+            StrategyType.ADDITIONAL_BALLS,
+            StrategyType.EXTRA_PADDLE,
+            StrategyType.EXPLODING_BRICKS,
+            StrategyType.RETURN_LIFE
+    };
+    // valid codes, so files can be checked with one lookup per cell
+    private static final boolean[] VALID = new boolean[256];
+
+    static {
+        VALID[EMPTY] = true;
+        for (int code = BASIC; code < CODE_LIMIT; code++) {
+            boolean packed = true;
+            boolean ended = false;
+            for (int rest = code - 1, i = 0; i < StrategyFactory.MAX_SPECIALS; i++, rest /= RADIX) {
+                int digit = rest % RADIX;
+                if (digit == 0) ended = true;
+                else if (ended) packed = false;
+            }
+            VALID[code] = packed;
+        }
+    }
+
+    private final int cols;
+    private final int rows;
+    private final ByteBuffer cells;
+    private final int brickCount;
+
+    /**
+     * Construct a level over a row-major array of cell codes. The array is used as is, not
+     * copied.
+     *
+     * @param cols bricks per row
+     * @param rows number of rows
+     * @param cells one code per cell, row by row
+     * @throws IllegalArgumentException if the sizes do not match or a code is invalid
+     */
+    public Level(int cols, int rows, byte[] cells) {
+        this(cols, rows, ByteBuffer.wrap(cells));
+    }
+
+    /**
+     * Construct a level over a buffer of cell codes, such as a memory-mapped file. The cells are
+     * read from the buffer's position up to its limit; the buffer is used as is, not copied, and
+     * must not change afterwards.
+     *
+     * @param cols bricks per row
+     * @param rows number of rows
+     * @param cells one code per cell, row by row
+     * @throws IllegalArgumentException if the sizes do not match or a code is invalid
+     */
+    public Level(int cols, int rows, ByteBuffer cells) {
+        if (cols <= 0 || rows <= 0 || (long) cols * rows != cells.remaining()) {
+            throw new IllegalArgumentException(
+                    "level of " + cols + "x" + rows + " cannot hold " + cells.remaining() + " cells");
+        }
+        cells = cells.slice();
+        int bricks = 0;
+        for (int cell = 0; cell < cols * rows; cell++) {
+            int code = cells.get(cell) & 0xFF;
+            if (!VALID[code]) {
+                throw new IllegalArgumentException("invalid code " + code + " in cell " + cell);
+            }
+            if (code != EMPTY) bricks++;
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = cells;
+        this.brickCount = bricks;
+    }
+
+    /**
+     * Generate a random layout with the same draws the game makes for its random grid: every
+     * cell holds a brick, and half of them get specials drawn by
+     * {@link StrategyFactory#drawSpecialTypes}.
+     *
+     * @param cols bricks per row
+     * @param rows number of rows
+     * @param rand source of randomness
+     * @return the level
+     */
+    public static Level random(int cols, int rows, GameRandom rand) {
+        byte[] cells = new byte[cols * rows];
+        StrategyType[] drawn = new StrategyType[StrategyFactory.MAX_SPECIALS];
+        for (int cell = 0; cell < cells.length; cell++) {
+            int code = BASIC;
+            if (rand.nextFloat() < SPECIAL_CHANCE) {
+                code = encode(drawn, StrategyFactory.drawSpecialTypes(rand, drawn));
+            }
+            cells[cell] = (byte) code;
+        }
+        return new Level(cols, rows, cells);
+    }
+
+    /**
+     * @return bricks per row
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @return number of rows
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return number of non-empty cells
+     */
+    public int getBrickCount() { return brickCount; }
+
+    /**
+     * @param row row index
+     * @param col column index
+     * @return code of the cell
+     */
+    public int getCode(int row, int col) {
+        return cells.get(row * cols + col) & 0xFF;
+    }
+
+    /**
+     * Encode a brick combining the given special types.
+     *
+     * @param specials special types, in execution order; BASIC and DOUBLE are not allowed
+     * @param count number of valid entries in {@code specials}, at most
+     *              {@link StrategyFactory#MAX_SPECIALS}
+     * @return the cell code
+     */
+    public static int encode(StrategyType[] specials, int count) {
+        int code = 0;
+        for (int i = count - 1; i >= 0; i--) code = code * RADIX + digitOf(specials[i]);
+        return code + BASIC;
+    }
+
+    /**
+     * Decode the special types of a brick code.
+     *
+     * @param code a non-empty cell code
+     * @param specials receives the special types, in execution order; must hold
+     *                 {@link StrategyFactory#MAX_SPECIALS} entries
+     * @return number of special types
+     */
+    public static int decode(int code, StrategyType[] specials) {
+        int count = 0;
+        for (int rest = code - BASIC; rest != 0; rest /= RADIX) {
+            specials[count++] = DIGIT_TYPES[rest % RADIX];
+        }
+        return count;
+    }
+
+    /**
+     * @param code a cell code
+     * @return true if {@code code} is a valid cell code
+     */
+    public static boolean isValid(int code) {
+        return code >= 0 && code < VALID.length && VALID[code];
+    }
+
+    /**
+     * @return a new read-only view of the cells, row by row
+     */
+    ByteBuffer cells() { return cells.asReadOnlyBuffer(); }
+
+    /*====== Helpers =======*/
+    private static int digitOf(StrategyType type) {
+        for (int digit = 1; digit < DIGIT_TYPES.length; digit++) {
+            if (DIGIT_TYPES[digit] == type) return digit;
+        }
+        throw new IllegalArgumentException("not a single special type: " + type);
+    }
+}
@@ -0,0 +1,39 @@
+package bricker.levels;
+
+import bricker.util.GameRandom;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts levels between the text and binary forms of {@link LevelFile}, and generates random
+ * levels for benchmarks. Files ending in {@code .txt} are text; any other file is binary.
+ */
+public class LevelConverter {
+    private static final String RANDOM_FLAG = "--random";
+
+    /**
+     * Entry point.
+     *
+     * @param args {@code IN OUT} to convert, or {@code --random cols rows seed OUT} to generate
+     */
+    public static void main(String[] args) {
+        Level level;
+        Path out;
+        if (args != null && args.length == 5 && RANDOM_FLAG.equals(args[0])) {
+            level = Level.random(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    new GameRandom(Long.parseLong(args[3])));
+            out = Paths.get(args[4]);
+        } else if (args != null && args.length == 2) {
+            Path in = Paths.get(args[0]);
+            level = LevelFile.read(in);
+            out = Paths.get(args[1]);
+        } else {
+            System.err.println("usage: LevelConverter IN OUT | LevelConverter --random cols rows seed OUT");
+            return;
+        }
+        LevelFile.write(level, out);
+        System.out.printf("%s: %dx%d, %d bricks%n",
+                out, level.getCols(), level.getRows(), level.getBrickCount());
+    }
+}
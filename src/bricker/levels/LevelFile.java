@@ -0,0 +1,243 @@
+package bricker.levels;
+
+import bricker.brick_strategies.StrategyFactory;
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes {@link Level}s, in a compact binary form for loading and a text form for
+ * authoring.
+ * <p>
+ * Binary form, big-endian:
+ * <pre>
+ * magic "BRKL" | version (byte) | cols (int) | rows (int) | one code byte per cell, row by row
+ * </pre>
+ * The binary file is memory-mapped and the level reads its cells straight from the mapping, so
+ * even a level of a million cells loads in a few milliseconds, and a tall level is paged in by
+ * the operating system rather than held on the heap.
+ * <p>
+ * Text form: one line per row and one whitespace-separated token per cell. {@code .} is an empty
+ * cell, {@code B} a basic brick, and a special brick is written as its special types in
+ * execution order: {@code A} additional balls, {@code P} extra paddle, {@code X} exploding,
+ * {@code L} return life (e.g. {@code AX}). Blank lines and lines starting with {@code #} are
+ * ignored.
+ */
+public final class LevelFile {
+    static final int MAGIC = 0x42524B4C; // "BRKL"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 1 + 4 + 4;
+
+    private static final String TEXT_SUFFIX = ".txt";
+    private static final char EMPTY_TOKEN = '.';
+    private static final char BASIC_TOKEN = 'B';
+    private static final char COMMENT = '#';
+    // token letter of each special type, indexed by ordinal; 0 for types without a letter
+    private static final char[] LETTERS = new char[StrategyType.values().length];
+
+    static {
+        LETTERS[StrategyType.ADDITIONAL_BALLS.ordinal()] = 'A';
+        LETTERS[StrategyType.EXTRA_PADDLE.ordinal()] = 'P';
+        LETTERS[StrategyType.EXPLODING_BRICKS.ordinal()] = 'X';
+        LETTERS[StrategyType.RETURN_LIFE.ordinal()] = 'L';
+    }
+
+    private LevelFile() {}
+
+    /**
+     * Load a level, in text form if the file name ends in {@code .txt} and in binary form
+     * otherwise.
+     *
+     * @param path the level file
+     * @return the level
+     * @throws UncheckedIOException if the file cannot be read or is not a valid level
+     */
+    public static Level read(Path path) {
+        return isText(path) ? loadText(path) : load(path);
+    }
+
+    /**
+     * Save a level, in text form if the file name ends in {@code .txt} and in binary form
+     * otherwise.
+     *
+     * @param level the level
+     * @param path destination file; replaced if it exists
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void write(Level level, Path path) {
+        if (isText(path)) saveText(level, path);
+        else save(level, path);
+    }
+
+    /**
+     * Load a binary level by memory-mapping the file.
+     *
+     * @param path the level file
+     * @return the level
+     * @throws UncheckedIOException if the file cannot be read or is not a valid level
+     */
+    public static Level load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("not a level file");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) throw new IOException("not a level file");
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) throw new IOException("unsupported level version " + version);
+            int cols = buffer.getInt();
+            int rows = buffer.getInt();
+            if (cols <= 0 || rows <= 0 || (long) cols * rows != buffer.remaining()) {
+                throw new IOException("level size " + cols + "x" + rows
+                        + " does not match the file length");
+            }
+            // the mapping stays valid after the channel is closed
+            return new Level(cols, rows, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read level " + path, e);
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException("Cannot read level " + path, new IOException(e.getMessage()));
+        }
+    }
+
+    /**
+     * Save a level in binary form.
+     *
+     * @param level the level
+     * @param path destination file; replaced if it exists
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void save(Level level, Path path) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) VERSION).putInt(level.getCols()).putInt(level.getRows());
+        header.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cells = level.cells();
+            while (header.hasRemaining()) channel.write(header);
+            while (cells.hasRemaining()) channel.write(cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write level " + path, e);
+        }
+    }
+
+    /**
+     * Load a level in text form.
+     *
+     * @param path the text file
+     * @return the level
+     * @throws UncheckedIOException if the file cannot be read or is not a valid level
+     */
+    public static Level loadText(Path path) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<String[]> rows = new ArrayList<>();
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.charAt(0) == COMMENT) continue;
+                String[] tokens = trimmed.split("\\s+");
+                if (!rows.isEmpty() && tokens.length != rows.get(0).length) {
+                    throw new IOException("line " + lineNumber + ": expected "
+                            + rows.get(0).length + " cells, found " + tokens.length);
+                }
+                rows.add(tokens);
+            }
+            if (rows.isEmpty()) throw new IOException("level has no rows");
+
+            int cols = rows.get(0).length;
+            byte[] cells = new byte[cols * rows.size()];
+            StrategyType[] specials = new StrategyType[StrategyFactory.MAX_SPECIALS];
+            for (int row = 0; row < rows.size(); row++) {
+                for (int col = 0; col < cols; col++) {
+                    cells[row * cols + col] = (byte) parseToken(rows.get(row)[col], specials);
+                }
+            }
+            return new Level(cols, rows.size(), cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read level " + path, e);
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException("Cannot read level " + path, new IOException(e.getMessage()));
+        }
+    }
+
+    /**
+     * Save a level in text form, with the cells of each column aligned.
+     *
+     * @param level the level
+     * @param path destination file; replaced if it exists
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void saveText(Level level, Path path) {
+        String[] tokens = new String[Level.CODE_LIMIT];
+        int width = 1;
+        for (int code = 0; code < Level.CODE_LIMIT; code++) {
+            if (!Level.isValid(code)) continue;
+            tokens[code] = formatToken(code);
+            width = Math.max(width, tokens[code].length());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(COMMENT + " " + level.getCols() + "x" + level.getRows() + " Bricker level");
+            writer.newLine();
+            StringBuilder line = new StringBuilder();
+            for (int row = 0; row < level.getRows(); row++) {
+                line.setLength(0);
+                for (int col = 0; col < level.getCols(); col++) {
+                    String token = tokens[level.getCode(row, col)];
+                    line.append(token);
+                    if (col == level.getCols() - 1) break;
+                    for (int pad = token.length(); pad <= width; pad++) line.append(' ');
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write level " + path, e);
+        }
+    }
+
+    /*====== Helpers =======*/
+    private static boolean isText(Path path) {
+        return path.getFileName().toString().endsWith(TEXT_SUFFIX);
+    }
+
+    private static int parseToken(String token, StrategyType[] specials) throws IOException {
+        if (token.length() == 1 && token.charAt(0) == EMPTY_TOKEN) return Level.EMPTY;
+        if (token.length() == 1 && token.charAt(0) == BASIC_TOKEN) return Level.BASIC;
+        if (token.length() > specials.length) throw new IOException("too many specials: " + token);
+        for (int i = 0; i < token.length(); i++) {
+            specials[i] = typeOf(token.charAt(i));
+            if (specials[i] == null) throw new IOException("unknown cell: " + token);
+        }
+        return Level.encode(specials, token.length());
+    }
+
+    private static String formatToken(int code) {
+        if (code == Level.EMPTY) return String.valueOf(EMPTY_TOKEN);
+        if (code == Level.BASIC) return String.valueOf(BASIC_TOKEN);
+        StrategyType[] specials = new StrategyType[StrategyFactory.MAX_SPECIALS];
+        int count = Level.decode(code, specials);
+        StringBuilder token = new StringBuilder(count);
+        for (int i = 0; i < count; i++) token.append(LETTERS[specials[i].ordinal()]);
+        return token.toString();
+    }
+
+    private static StrategyType typeOf(char letter) {
+        for (StrategyType type : StrategyType.values()) {
+            if (LETTERS[type.ordinal()] == letter) return type;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package bricker.levels;
+
+import bricker.util.GameRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Headless check that levels survive a round trip through {@link LevelFile}. A level holding
+ * every valid cell code, in both orders, and a large random level are saved and loaded again in
+ * the binary and the text form, and converted from one form to the other by file name as
+ * {@link LevelConverter} does; every load must give back the same size and the same code in
+ * every cell.
+ * <p>
+ * Exits with status 1 on the first mismatch.
+ */
+public class LevelFileCheck {
+    private static final int RANDOM_COLS = 40;
+    private static final int RANDOM_ROWS = 500;
+    private static final long SEED = 42;
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Level[] levels = {
+                everyCode(), Level.random(RANDOM_COLS, RANDOM_ROWS, new GameRandom(SEED))
+        };
+        Path binary = tempFile(".brkl");
+        Path text = tempFile(".txt");
+        Path converted = tempFile(".brkl");
+        try {
+            for (Level level : levels) {
+                LevelFile.save(level, binary);
+                compare("binary", level, LevelFile.load(binary));
+                LevelFile.saveText(level, text);
+                compare("text", level, LevelFile.loadText(text));
+                LevelFile.write(LevelFile.read(binary), text);
+                LevelFile.write(LevelFile.read(text), converted);
+                compare("binary to text to binary", level, LevelFile.load(converted));
+                System.out.printf("%dx%d level, %d bricks: binary, text and converted copies "
+                                + "match%n", level.getCols(), level.getRows(),
+                        level.getBrickCount());
+            }
+        } finally {
+            delete(binary);
+            delete(text);
+            delete(converted);
+        }
+        System.out.println("OK");
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Build a level of two rows holding every valid code, in increasing order on the first row
+     * and in decreasing order on the second.
+     */
+    private static Level everyCode() {
+        int valid = 0;
+        for (int code = 0; code < Level.CODE_LIMIT; code++) {
+            if (Level.isValid(code)) valid++;
+        }
+        byte[] cells = new byte[2 * valid];
+        int col = 0;
+        for (int code = 0; code < Level.CODE_LIMIT; code++) {
+            if (!Level.isValid(code)) continue;
+            cells[col] = (byte) code;
+            cells[2 * valid - 1 - col] = (byte) code;
+            col++;
+        }
+        return new Level(valid, 2, cells);
+    }
+
+    private static void compare(String form, Level expected, Level actual) {
+        if (actual.getCols() != expected.getCols() || actual.getRows() != expected.getRows()) {
+            fail(form + " copy is " + actual.getCols() + "x" + actual.getRows() + " instead of "
+                    + expected.getCols() + "x" + expected.getRows());
+        }
+        for (int row = 0; row < expected.getRows(); row++) {
+            for (int col = 0; col < expected.getCols(); col++) {
+                if (actual.getCode(row, col) != expected.getCode(row, col)) {
+                    fail(form + " copy holds code " + actual.getCode(row, col) + " instead of "
+                            + expected.getCode(row, col) + " at row " + row + ", column " + col);
+                }
+            }
+        }
+        if (actual.getBrickCount() != expected.getBrickCount()) {
+            fail(form + " copy counts " + actual.getBrickCount() + " bricks instead of "
+                    + expected.getBrickCount());
+        }
+    }
+
+    private static Path tempFile(String suffix) {
+        try {
+            return Files.createTempFile("bricker-level-", suffix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,288 @@
+package bricker.main;
+
+import bricker.gameobjects.AutopilotPaddle;
+import bricker.gameobjects.PuckManager;
+import bricker.metrics.Histogram;
+import bricker.metrics.MetricsRegistry;
+import bricker.util.GameRandom;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many independent headless games in parallel on a {@link ForkJoinPool}, for balance and
+ * regression sweeps. Every game gets its own seed, drawn in order from the batch seed, and its
+ * own grid size, taken round-robin from a list; a batch therefore plays the same games whatever
+ * the number of threads. Each game runs to its end or to a frame limit, and the batch reports the
+ * win rate, the frames needed to clear the grid, peak object counts and frame-time percentiles.
+ * <p>
+ * Games share the {@link MetricsRegistry} that aggregates their per-frame metrics, whose counters
+ * and histograms are lock-free, and the process-wide {@link bricker.assets.AssetRegistry}, which
+ * every game binds and preloads and whose methods are synchronized. Gauges are not aggregated:
+ * each game replaces the shared registry's gauges with its own when it starts, so after a batch
+ * they only describe the last game started.
+ */
+public class BatchRunner {
+    private static final int DEFAULT_GAMES = 1_000;
+    private static final String DEFAULT_GRIDS = "8x7";
+    private static final int DEFAULT_MAX_FRAMES = 20_000;
+    private static final long DEFAULT_SEED = 42;
+    private static final float TIMESTEP = 1f / 60f;
+    private static final Vector2 WINDOW = new Vector2(1000, 700);
+    private static final String THREADS_FLAG = "--threads=";
+    private static final String BOT_FLAG = "--bot=";
+    private static final String PUCKS_FLAG = "--pucks=";
+    private static final long[] FRAME_BUCKETS = Histogram.exponentialBounds(60, 1.25, 40);
+    private static final float NANOS_PER_MICRO = 1e3f;
+    private static final float NANOS_PER_SECOND = 1e9f;
+    private static final float SECONDS_PER_MINUTE = 60f;
+
+    private final int[][] grids;
+    private final int maxFrames;
+    private final long[] seeds;
+    private AutopilotPaddle.Skill autopilot;
+    private int maxLivePucks;
+    private PuckManager.Policy puckPolicy; // null for the game's default budget
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final Histogram framesToClear = new Histogram(FRAME_BUCKETS);
+
+    /**
+     * Totals of a range of games. Combined pairwise as the fork-join tasks complete.
+     */
+    public static class Tally {
+        private final int games;
+        private final int wins;
+        private final int unfinished;
+        private final long frames;
+
+        private Tally(int games, int wins, int unfinished, long frames) {
+            this.games = games;
+            this.wins = wins;
+            this.unfinished = unfinished;
+            this.frames = frames;
+        }
+
+        private Tally plus(Tally other) {
+            return new Tally(games + other.games, wins + other.wins,
+                    unfinished + other.unfinished, frames + other.frames);
+        }
+
+        /**
+         * @return number of games played
+         */
+        public int getGames() { return games; }
+
+        /**
+         * @return number of games won
+         */
+        public int getWins() { return wins; }
+
+        /**
+         * @return number of games still running when the frame limit was reached
+         */
+        public int getUnfinished() { return unfinished; }
+
+        /**
+         * @return frames simulated over all games
+         */
+        public long getFrames() { return frames; }
+
+        /**
+         * @return fraction of finished games that were won
+         */
+        public float getWinRate() {
+            int finished = games - unfinished;
+            return finished == 0 ? 0f : (float) wins / finished;
+        }
+    }
+
+    /**
+     * Plays the games of an index range, splitting it in halves until a single game is left.
+     */
+    @SuppressWarnings("serial")
+    private class BatchTask extends RecursiveTask<Tally> {
+        private final int from;
+        private final int to;
+
+        private BatchTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from == 1) return play(from);
+            int middle = (from + to) >>> 1;
+            BatchTask right = new BatchTask(middle, to);
+            right.fork();
+            Tally left = new BatchTask(from, middle).compute();
+            return left.plus(right.join());
+        }
+    }
+
+    /**
+     * Prepare a batch.
+     *
+     * @param games number of games to play
+     * @param grids grid sizes as {cols, rows}, assigned to the games round-robin
+     * @param maxFrames frame limit of every game
+     * @param seed seed from which the seed of every game is drawn
+     */
+    public BatchRunner(int games, int[][] grids, int maxFrames, long seed) {
+        this.grids = grids;
+        this.maxFrames = maxFrames;
+        this.seeds = new long[games];
+        GameRandom seedSource = new GameRandom(seed);
+        for (int i = 0; i < games; i++) seeds[i] = seedSource.nextLong();
+    }
+
+    /**
+     * @param autopilot skill of the autopilot steering the paddle in every game; null for a
+     *                  paddle that never moves
+     */
+    public void setAutopilot(AutopilotPaddle.Skill autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * @param maxLive largest number of pucks in a game at the same time
+     * @param policy what to do with the spawns beyond {@code maxLive}; null for the game's
+     *               default budget
+     */
+    public void setPuckBudget(int maxLive, PuckManager.Policy policy) {
+        this.maxLivePucks = maxLive;
+        this.puckPolicy = policy;
+    }
+
+    /**
+     * Play every game of the batch.
+     *
+     * @param pool pool the games run on
+     * @return the batch totals
+     */
+    public Tally run(ForkJoinPool pool) {
+        if (seeds.length == 0) return new Tally(0, 0, 0, 0);
+        return pool.invoke(new BatchTask(0, seeds.length));
+    }
+
+    /**
+     * @return per-frame metrics aggregated over every game played so far
+     */
+    public MetricsRegistry getMetrics() { return metrics; }
+
+    /**
+     * @return frames taken by every won game to clear its grid
+     */
+    public Histogram getFramesToClear() { return framesToClear; }
+
+    /**
+     * Entry point.
+     *
+     * @param args optional arguments: [--threads=N] [--bot=good|bad]
+     *             [--pucks=MAX[:drop|merge|defer]] [games] [grids, e.g. 8x7,20x10] [max frames]
+     *             [seed]
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AutopilotPaddle.Skill autopilot = null;
+        int maxLivePucks = 0;
+        PuckManager.Policy puckPolicy = null;
+        int options = 0;
+        while (args != null && options < args.length && args[options].startsWith("--")) {
+            if (args[options].startsWith(THREADS_FLAG)) {
+                threads = Integer.parseInt(args[options].substring(THREADS_FLAG.length()));
+            } else if (args[options].startsWith(BOT_FLAG)) {
+                autopilot = AutopilotPaddle.Skill.valueOf(
+                        args[options].substring(BOT_FLAG.length()).toUpperCase(Locale.ROOT));
+            } else if (args[options].startsWith(PUCKS_FLAG)) {
+                String[] budget = args[options].substring(PUCKS_FLAG.length()).split(":");
+                maxLivePucks = Integer.parseInt(budget[0]);
+                puckPolicy = budget.length > 1
+                        ? PuckManager.Policy.valueOf(budget[1].toUpperCase(Locale.ROOT))
+                        : PuckManager.Policy.DROP;
+            }
+            options++;
+        }
+        if (args != null) args = Arrays.copyOfRange(args, options, args.length);
+        int games = args != null && args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        String gridList = args != null && args.length >= 2 ? args[1] : DEFAULT_GRIDS;
+        int maxFrames = args != null && args.length >= 3
+                ? Integer.parseInt(args[2]) : DEFAULT_MAX_FRAMES;
+        long seed = args != null && args.length >= 4 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+        String[] gridNames = gridList.split(",");
+        int[][] grids = new int[gridNames.length][];
+        for (int i = 0; i < gridNames.length; i++) {
+            String[] parts = gridNames[i].trim().split("x");
+            grids[i] = new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+        }
+
+        BatchRunner batch = new BatchRunner(games, grids, maxFrames, seed);
+        batch.setAutopilot(autopilot);
+        batch.setPuckBudget(maxLivePucks, puckPolicy);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Tally tally;
+        try {
+            tally = batch.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        MetricsRegistry metrics = batch.getMetrics();
+        Histogram frameNanos = histogramOrEmpty(metrics, "frame.nanos");
+        Histogram objects = histogramOrEmpty(metrics, "frame.objects");
+        Histogram pucks = histogramOrEmpty(metrics, "frame.pucks_alive");
+        Histogram clear = batch.getFramesToClear();
+        float seconds = elapsed / NANOS_PER_SECOND;
+        System.out.printf("%d games (%s, %s) on %d threads in %.1f s: %.0f games/min, "
+                        + "%.0f frames/s%n",
+                tally.getGames(), gridList,
+                autopilot == null ? "no player" : autopilot.name().toLowerCase(Locale.ROOT) + " bot",
+                threads, seconds,
+                tally.getGames() / seconds * SECONDS_PER_MINUTE, tally.getFrames() / seconds);
+        System.out.printf("win rate %.1f%% (%d won, %d lost, %d unfinished after %d frames)%n",
+                tally.getWinRate() * 100, tally.getWins(),
+                tally.getGames() - tally.getWins() - tally.getUnfinished(),
+                tally.getUnfinished(), maxFrames);
+        System.out.printf("frames to clear: mean %.0f, p50 %d, p90 %d, max %d%n",
+                clear.getCount() == 0 ? 0f : (float) clear.getSum() / clear.getCount(),
+                clear.getPercentile(50), clear.getPercentile(90), clear.getMax());
+        System.out.printf("peak objects %d, peak pucks %d%n", objects.getMax(), pucks.getMax());
+        System.out.printf("frame time: p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us%n",
+                frameNanos.getPercentile(50) / NANOS_PER_MICRO,
+                frameNanos.getPercentile(90) / NANOS_PER_MICRO,
+                frameNanos.getPercentile(99) / NANOS_PER_MICRO,
+                frameNanos.getMax() / NANOS_PER_MICRO);
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * @return the named histogram, or an empty one if no game recorded it
+     */
+    private static Histogram histogramOrEmpty(MetricsRegistry metrics, String name) {
+        Histogram histogram = metrics.getHistogram(name);
+        return histogram != null ? histogram : new Histogram(new long[0]);
+    }
+
+    /**
+     * Play game {@code index} to its end or to the frame limit.
+     */
+    private Tally play(int index) {
+        int[] grid = grids[index % grids.length];
+        HeadlessSimulation simulation = new HeadlessSimulation(
+                grid[0], grid[1], WINDOW, TIMESTEP, false, seeds[index]);
+        simulation.setMetrics(metrics);
+        simulation.setAutopilot(autopilot);
+        simulation.setPuckBudget(maxLivePucks, puckPolicy);
+        HeadlessSimulation.Result result = simulation.run(maxFrames);
+        boolean won = result.getGamesWon() > 0;
+        boolean unfinished = !won && result.getFrames() >= maxFrames;
+        if (won) framesToClear.record(result.getFrames());
+        return new Tally(1, won ? 1 : 0, unfinished ? 1 : 0, result.getFrames());
+    }
+}
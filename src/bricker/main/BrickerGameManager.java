@@ -1,13 +1,27 @@
 package bricker.main;
 
 
+import bricker.assets.AssetRegistry;
+import bricker.audio.AudioMixer;
 import bricker.brick_strategies.BasicCollisionStrategy;
-import bricker.brick_strategies.StrategyFactory;
+import bricker.brick_strategies.ExplosionCascade;
+import bricker.brick_strategies.StrategyTable;
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.gameobjects.AutopilotPaddle;
 import bricker.gameobjects.Ball;
-import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.CollisionWorld;
 import bricker.gameobjects.LivesUI;
+import bricker.gameobjects.MutationQueue;
 import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckManager;
+import bricker.levels.Level;
+import bricker.levels.LevelFile;
+import bricker.metrics.Histogram;
+import bricker.metrics.MetricsRegistry;
+import bricker.replay.InputRecorder;
+import bricker.util.GameRandom;
+import bricker.util.StateHash;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
@@ -17,9 +31,10 @@ import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import danogl.util.Counter;
 import java.awt.event.KeyEvent;
-
-
-import java.util.Random;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Main game manager for the Bricker game. Responsible for initializing the game scene,
@@ -35,8 +50,18 @@ public class BrickerGameManager extends GameManager{
     private static final float PUCK_SIZE_MULTIPLIER = 0.75f;
     private static final float PUCK_SIZE = BALL_SIZE * PUCK_SIZE_MULTIPLIER;
     private static final float PUCK_SPEED = BALL_SPEED;
+    private static final int MAX_POOLED_PUCKS = 256;
+    private static final int DEFAULT_MAX_LIVE_PUCKS = 128;
+    private static final int MAX_VOICES_PER_CLIP = 4;
+    // frame times from 10us to ~1.3s; per-frame counts from 1 to ~130k
+    private static final long[] NANOS_BUCKETS = Histogram.exponentialBounds(10_000, 1.5, 30);
+    private static final long[] COUNT_BUCKETS = Histogram.exponentialBounds(1, 1.5, 30);
+    private static final String RECORD_FLAG = "--record=";
+    private static final String LEVEL_FLAG = "--level=";
+    private static final String BOT_FLAG = "--bot=";
     private final int BRICKS_PER_ROW;
     private final int NUMBER_OF_ROWS;
+    private final Level level; // null for a random grid
     private static final int MAX_FALLS = 4;
     private static final int INITIAL_FALLS = 3;
     private int remainingFalls;
@@ -45,8 +70,31 @@ public class BrickerGameManager extends GameManager{
     private WindowController windowController;
     private LivesUI livesUI;
     private Counter bricksLeft;
+    private Counter extraPaddles;
     private UserInputListener input;
     private GameObject originalPaddle;
+    private AssetRegistry assets;
+    private AudioMixer audio;
+    private MutationQueue mutations;
+    private PuckManager pucks;
+    private BrickField brickField;
+    private CollisionWorld collisionWorld;
+    // each initializeGame (including resets) splits its game's randomness from here
+    private final GameRandom gameSeeds;
+    private GameRandom ballRandom;
+    private GameRandom layoutRandom;
+    private MetricsRegistry metrics = new MetricsRegistry();
+    private LongAdder framesCounter;
+    private Histogram frameNanos;
+    private Histogram collisionCallbacks;
+    private Histogram impactsPerFrame;
+    private Histogram pucksAlive;
+    private Histogram objectsAlive;
+    private InputRecorder inputRecorder;
+    private AutopilotPaddle.Skill autopilot; // null when the user steers
+    private GameRandom autopilotRandom;
+    private int maxLivePucks = DEFAULT_MAX_LIVE_PUCKS;
+    private PuckManager.Policy puckPolicy = PuckManager.Policy.DROP;
 
 
     /**
@@ -71,9 +119,53 @@ public class BrickerGameManager extends GameManager{
                               Vector2 windowDimensions,
                               int BRICKS_PER_ROW,
                               int NUMBER_OF_ROWS) {
+        this(windowTitle, windowDimensions, BRICKS_PER_ROW, NUMBER_OF_ROWS, System.nanoTime());
+    }
+
+    /**
+     * Create a BrickerGameManager whose randomness is fully determined by {@code seed}:
+     * two managers built with the same seed and fed the same inputs play identical games.
+     *
+     * @param windowTitle Window title shown in the application frame
+     * @param windowDimensions Initial window dimensions - width, height
+     * @param BRICKS_PER_ROW Number of bricks per row
+     * @param NUMBER_OF_ROWS Number of rows of bricks
+     * @param seed seed of every random choice made by the game
+     */
+    public BrickerGameManager(String windowTitle,
+                              Vector2 windowDimensions,
+                              int BRICKS_PER_ROW,
+                              int NUMBER_OF_ROWS,
+                              long seed) {
+        this(windowTitle, windowDimensions, BRICKS_PER_ROW, NUMBER_OF_ROWS, null, seed);
+    }
+
+    /**
+     * Create a BrickerGameManager that plays a fixed brick layout instead of a random grid.
+     *
+     * @param windowTitle Window title shown in the application frame
+     * @param windowDimensions Initial window dimensions - width, height
+     * @param level the brick layout; see {@link LevelFile}
+     * @param seed seed of every random choice made by the game
+     */
+    public BrickerGameManager(String windowTitle,
+                              Vector2 windowDimensions,
+                              Level level,
+                              long seed) {
+        this(windowTitle, windowDimensions, level.getCols(), level.getRows(), level, seed);
+    }
+
+    private BrickerGameManager(String windowTitle,
+                               Vector2 windowDimensions,
+                               int BRICKS_PER_ROW,
+                               int NUMBER_OF_ROWS,
+                               Level level,
+                               long seed) {
         super(windowTitle, windowDimensions);
         this.BRICKS_PER_ROW = BRICKS_PER_ROW;
         this.NUMBER_OF_ROWS = NUMBER_OF_ROWS;
+        this.level = level;
+        this.gameSeeds = new GameRandom(seed);
     }
 
     /**
@@ -94,22 +186,63 @@ public class BrickerGameManager extends GameManager{
         this.windowController = windowController;
         this.input = inputListener;
 
+        // decode every asset once; cached assets survive resetGame
+        this.assets = AssetRegistry.getInstance();
+        assets.bind(imageReader, soundReader);
+        assets.preload();
+        // sounds requested during a frame are mixed at its end and played on an audio thread;
+        // the previous game's thread is stopped
+        if (audio != null) audio.close();
+        audio = new AudioMixer(assets, MAX_VOICES_PER_CLIP);
+
+        // adds/removes requested during a frame are applied at its end
+        mutations = new MutationQueue(gameObjects());
+
+        registerMetrics();
+
+        // one independent stream per consumer, split in a fixed order
+        GameRandom gameRandom = gameSeeds.split();
+        ballRandom = gameRandom.split();
+        layoutRandom = gameRandom.split();
+        GameRandom puckRandom = gameRandom.split();
+        autopilotRandom = gameRandom.split();
+
         //initialize falls counter
         remainingFalls = INITIAL_FALLS;
 
-        livesUI = new LivesUI(gameObjects(), imageReader, windowDimensions, MAX_FALLS, remainingFalls);
+        livesUI = new LivesUI(gameObjects(), assets, windowDimensions, MAX_FALLS, remainingFalls);
+
+        bricksLeft = new Counter(level == null ? BRICKS_PER_ROW * NUMBER_OF_ROWS
+                : level.getBrickCount());
 
-        bricksLeft = new Counter(BRICKS_PER_ROW * NUMBER_OF_ROWS);
+        // balls and pucks are swept against walls and bricks, so fast balls cannot tunnel
+        collisionWorld = new CollisionWorld();
+        extraPaddles = new Counter(0);
 
-        createBall(imageReader, soundReader);
+        createBall();
 
-        createUserPaddle(imageReader, inputListener);
+        pucks = new PuckManager(
+                MAX_POOLED_PUCKS,
+                new Vector2(PUCK_SIZE, PUCK_SIZE),
+                assets.image(AssetRegistry.PUCK_IMAGE),
+                audio.clip(AssetRegistry.COLLISION_SOUND),
+                mutations,
+                collisionWorld,
+                puckRandom,
+                windowDimensions,
+                PUCK_SPEED);
+        pucks.setBudget(maxLivePucks, puckPolicy);
+
+        createUserPaddle(inputListener);
 
         makeWalls();
 
-        createBackground(imageReader);
+        createBackground();
 
-        spawnBrick(imageReader, soundReader);
+        // walls and bricks are handled by the collision world, not by the engine
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, BrickField.LAYER, false);
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        spawnBrick();
     }
 
     /**
@@ -122,23 +255,121 @@ public class BrickerGameManager extends GameManager{
         }
     }
 
+    /**
+     * Use {@code metrics} for this game's counters and histograms instead of a private registry.
+     * Must be called before {@link #initializeGame}; several games may share one registry.
+     *
+     * @param metrics the registry to record into
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the registry this game records its metrics into
+     */
+    public MetricsRegistry getMetrics() { return metrics; }
+
+    /**
+     * @return number of bricks still to be destroyed in the current game
+     */
+    public int getBricksLeft() { return bricksLeft.value(); }
+
+    /**
+     * Let an autopilot steer the paddle in the games initialized from now on.
+     *
+     * @param autopilot skill of the autopilot; null to let the user steer
+     */
+    public void setAutopilot(AutopilotPaddle.Skill autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * Limit the number of live pucks in the games initialized from now on.
+     *
+     * @param maxLive largest number of pucks in the game at the same time, at least 1;
+     *                {@link Integer#MAX_VALUE} for no limit
+     * @param policy what to do with the spawns beyond {@code maxLive}
+     */
+    public void setPuckBudget(int maxLive, PuckManager.Policy policy) {
+        this.maxLivePucks = maxLive;
+        this.puckPolicy = policy;
+    }
+
+    /**
+     * Record the polled keys and the length of every frame from now on.
+     *
+     * @param inputRecorder the recorder; null to stop recording. The caller closes it.
+     */
+    public void setInputRecorder(InputRecorder inputRecorder) {
+        this.inputRecorder = inputRecorder;
+    }
+
+    /**
+     * Compute a digest of the current game state: every game object's position and velocity,
+     * the live bricks, the remaining lives and bricks. Two runs that produce the same sequence
+     * of digests are bit-identical as far as the simulation is concerned.
+     *
+     * @param hash reusable accumulator; reset by this call
+     * @return the digest
+     */
+    public long stateHash(StateHash hash) {
+        hash.reset();
+        for (GameObject gameObject : gameObjects()) {
+            Vector2 topLeft = gameObject.getTopLeftCorner();
+            Vector2 velocity = gameObject.getVelocity();
+            hash.add(topLeft.x()).add(topLeft.y()).add(velocity.x()).add(velocity.y());
+        }
+        brickField.hashInto(hash);
+        return hash.add(remainingFalls).add(bricksLeft.value()).value();
+    }
+
     /**
      * Entry point for the game application. The game is run via {@link #run()} provided by GameManager.
-     * Provide optional command-line arguments for columns and rows counts.
+     * Provide optional command-line arguments for columns and rows counts, optionally preceded
+     * by {@code --record=FILE} to record the session's input for {@code ReplayRunner}, and
+     * {@code --level=FILE} to play a level file (see {@link LevelFile}) instead of a random grid,
+     * and {@code --bot=good|bad} to watch an autopilot play.
      *
-     * @param args optional arguments: cols rows
+     * @param args optional arguments: [--record=FILE] [--level=FILE] [--bot=good|bad] cols rows
      */
     public static void main (String[] args) {
         Vector2 window = new Vector2(1000, 700);
+        String recordFile = null;
+        Level level = null;
+        AutopilotPaddle.Skill autopilot = null;
+        int options = 0;
+        while (args != null && options < args.length && args[options].startsWith("--")) {
+            if (args[options].startsWith(RECORD_FLAG)) {
+                recordFile = args[options].substring(RECORD_FLAG.length());
+            } else if (args[options].startsWith(LEVEL_FLAG)) {
+                level = LevelFile.read(Paths.get(args[options].substring(LEVEL_FLAG.length())));
+            } else if (args[options].startsWith(BOT_FLAG)) {
+                autopilot = AutopilotPaddle.Skill.valueOf(
+                        args[options].substring(BOT_FLAG.length()).toUpperCase(Locale.ROOT));
+            }
+            options++;
+        }
+        if (args != null) args = Arrays.copyOfRange(args, options, args.length);
 
         // If two args are provided, use them as (bricksPerRow, numRows); else defaults (8×7)
-        BrickerGameManager game;
+        int cols = 8;
+        int rows = 7;
         if (args != null && args.length == 2) {
-            int cols = Integer.parseInt(args[0]);
-            int rows = Integer.parseInt(args[1]);
-            game = new BrickerGameManager("Bricker", window, cols, rows);
-        } else {
-            game = new BrickerGameManager("Bricker", window); // defaults
+            cols = Integer.parseInt(args[0]);
+            rows = Integer.parseInt(args[1]);
+        }
+        long seed = System.nanoTime();
+        BrickerGameManager game = level == null
+                ? new BrickerGameManager("Bricker", window, cols, rows, seed)
+                : new BrickerGameManager("Bricker", window, level, seed);
+        game.setAutopilot(autopilot);
+        if (recordFile != null) {
+            InputRecorder recorder = new InputRecorder(Paths.get(recordFile), seed,
+                    game.BRICKS_PER_ROW, game.NUMBER_OF_ROWS, window, autopilot);
+            game.setInputRecorder(recorder);
+            // the window closes by exiting the JVM, so the end record is written on the way out
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close));
         }
         game.run();
     }
@@ -146,11 +377,9 @@ public class BrickerGameManager extends GameManager{
     /*====== Helpers =======*/
     /**
      * Add the background image to the scene.
-     *
-     * @param imageReader image resource loader used to read the background image
      */
-    private void createBackground(ImageReader imageReader) {
-        Renderable backgroundImage = imageReader.readImage("assets/DARK_BG2_small.jpeg", true);
+    private void createBackground() {
+        Renderable backgroundImage = assets.image(AssetRegistry.BACKGROUND_IMAGE);
         GameObject background = new GameObject(
                 Vector2.ZERO,
                 new Vector2(windowDimensions.x(), windowDimensions.y()),
@@ -160,20 +389,35 @@ public class BrickerGameManager extends GameManager{
     }
 
     /**
-     * Create the original user-controlled paddle and add it to game objects.
+     * Create the original paddle, steered by the user or by the autopilot, and add it to game
+     * objects.
      *
-     * @param imageReader image reader used to load the paddle renderable
      * @param inputListener user input listener for paddle control
      */
-    private void createUserPaddle(ImageReader imageReader,
-                                  UserInputListener inputListener) {
-        Renderable paddleImage = imageReader.readImage("assets/paddle.png", true);
-        originalPaddle = new Paddle(
-                Vector2.ZERO,
-                new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
-                paddleImage,
-                inputListener,
-                windowDimensions);
+    private void createUserPaddle(UserInputListener inputListener) {
+        Vector2 paddleDimensions = new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT);
+        if (autopilot != null) {
+            originalPaddle = new AutopilotPaddle(
+                    Vector2.ZERO,
+                    paddleDimensions,
+                    assets.image(autopilot == AutopilotPaddle.Skill.GOOD
+                            ? AssetRegistry.BOT_GOOD_IMAGE : AssetRegistry.BOT_BAD_IMAGE),
+                    windowDimensions,
+                    ball,
+                    BORDER_WIDTH,
+                    windowDimensions.x() - BORDER_WIDTH,
+                    BORDER_WIDTH,
+                    autopilot.aimError(PADDLE_WIDTH),
+                    autopilotRandom);
+        } else {
+            Renderable paddleImage = assets.image(AssetRegistry.PADDLE_IMAGE);
+            originalPaddle = new Paddle(
+                    Vector2.ZERO,
+                    paddleDimensions,
+                    paddleImage,
+                    inputListener,
+                    windowDimensions);
+        }
         originalPaddle.setCenter(
                 new Vector2(windowDimensions.x()/2, windowDimensions.y() - PADDLE_HEIGHT));
         gameObjects().addGameObject(originalPaddle);
@@ -181,19 +425,16 @@ public class BrickerGameManager extends GameManager{
 
     /**
      * Create the main ball, add it to the scene and initialize its velocity.
-     *
-     * @param imageReader image reader for the ball renderable
-     * @param soundReader sound reader for the collision sound
      */
-    private void createBall(ImageReader imageReader,
-                            SoundReader soundReader) {
-        Renderable ballImage = imageReader.readImage("assets/ball.png", true);
-        Sound collisionSound = soundReader.readSound("assets/blop.wav");
+    private void createBall() {
+        Renderable ballImage = assets.image(AssetRegistry.BALL_IMAGE);
+        AudioMixer.Clip collisionSound = audio.clip(AssetRegistry.COLLISION_SOUND);
 
         this.ball = new Ball(Vector2.ZERO,
                 new Vector2(BALL_SIZE, BALL_SIZE),
                 ballImage,
                 collisionSound);
+        ball.setCollisionWorld(collisionWorld);
 
         gameObjects().addGameObject(ball);
         resetBall();
@@ -206,8 +447,7 @@ public class BrickerGameManager extends GameManager{
         ball.setCenter(windowDimensions.mult(0.5f));
         float ballVelY = BALL_SPEED;
         float ballVelX = BALL_SPEED;
-        Random rand = new Random();
-        if (rand.nextBoolean()) {
+        if (ballRandom.nextBoolean()) {
             ballVelY *= -1;
             ballVelX *= -1;
         }
@@ -222,16 +462,78 @@ public class BrickerGameManager extends GameManager{
      */
     @Override
     public void update(float deltaTime) {
+        long frameStart = System.nanoTime();
+        if (inputRecorder != null) inputRecorder.onFrame(input, deltaTime);
+        // pucks move in one loop before the engine's update, so its collision checks see them
+        // at their new positions like every other object
+        pucks.update(deltaTime);
         super.update(deltaTime);
+        mutations.flush();
+        audio.endFrame(deltaTime);
+        brickField.advanceView();
+        recordFrame(System.nanoTime() - frameStart);
         checkForGameEnd();
     }
 
+    /**
+     * Look up the per-frame metrics and register the gauges of this game.
+     */
+    private void registerMetrics() {
+        framesCounter = metrics.counter("frames");
+        frameNanos = metrics.histogram("frame.nanos", NANOS_BUCKETS);
+        collisionCallbacks = metrics.histogram("frame.collision_callbacks", COUNT_BUCKETS);
+        impactsPerFrame = metrics.histogram("frame.impacts", COUNT_BUCKETS);
+        pucksAlive = metrics.histogram("frame.pucks_alive", COUNT_BUCKETS);
+        objectsAlive = metrics.histogram("frame.objects", COUNT_BUCKETS);
+        metrics.gauge("layer.background.objects", () -> countObjects(Layer.BACKGROUND));
+        metrics.gauge("layer.static.objects", () -> countObjects(Layer.STATIC_OBJECTS));
+        metrics.gauge("layer.default.objects", () -> countObjects(Layer.DEFAULT));
+        metrics.gauge("layer.bricks.objects", () -> countObjects(BrickField.LAYER));
+        metrics.gauge("layer.ui.objects", () -> countObjects(Layer.UI));
+        metrics.gauge("bricks.alive", () -> brickField == null ? 0 : brickField.getAliveCount());
+        metrics.gauge("pucks.alive", () -> pucks.getLive());
+        metrics.gauge("pucks.dropped", () -> pucks.getDropped());
+        metrics.gauge("pucks.merged", () -> pucks.getMerged());
+        metrics.gauge("pucks.deferred", () -> pucks.getDeferred());
+        metrics.gauge("pucks.pool.hits", () -> pucks.getHits());
+        metrics.gauge("pucks.pool.misses", () -> pucks.getMisses());
+        metrics.gauge("pucks.highWater", () -> pucks.getHighWater());
+        metrics.gauge("audio.requested", () -> audio.getRequested());
+        metrics.gauge("audio.played", () -> audio.getPlayed());
+        metrics.gauge("audio.coalesced", () -> audio.getCoalesced());
+        metrics.gauge("audio.voice_limited", () -> audio.getVoiceLimited());
+        metrics.gauge("audio.dispatch_dropped", () -> audio.getDispatchDropped());
+    }
+
+    /**
+     * Record the per-frame metrics of the frame that just ended.
+     */
+    private void recordFrame(long nanos) {
+        framesCounter.increment();
+        frameNanos.record(nanos);
+        collisionCallbacks.record(brickField.takeStrikes());
+        impactsPerFrame.record(collisionWorld.takeImpacts());
+        pucksAlive.record(pucks.getLive());
+        // balls, paddles, pucks and hearts; walls, bricks and UI do not change during play
+        objectsAlive.record(countObjects(Layer.DEFAULT));
+    }
+
+    /**
+     * @return number of game objects in a layer
+     */
+    private long countObjects(int layer) {
+        long count = 0;
+        for (GameObject ignored : gameObjects().objectsInLayer(layer)) count++;
+        return count;
+    }
+
     /**
      * Check whether the player lost a life or won and act accordingly.
      * This method is called every frame from {@link #update(float)}.
      */
     private void checkForGameEnd() {
-        float ballHeight = this.ball.getCenter().y();
+        // compare the top-left corner rather than allocating the center every frame
+        float ballHeight = this.ball.getTopLeftCorner().y() + BALL_SIZE / 2f;
         if (ballHeight > windowDimensions.y()) {
             onLifeLost();
         } else if (bricksLeft.value() <= 0 || input.isKeyPressed(KeyEvent.VK_W)) {
@@ -273,12 +575,9 @@ public class BrickerGameManager extends GameManager{
 
     /**
      * Spawn the bricks grid and decorate some bricks with special strategies.
-     * This method constructs the Brick[][] grid.
-     *
-     * @param imageReader image reader for brick renderable
-     * @param soundReader sound reader for brick-related sounds
+     * This method fills the {@link BrickField}, which stores and draws every brick.
      */
-    private void spawnBrick(ImageReader imageReader, SoundReader soundReader) {
+    private void spawnBrick() {
         final float BRICK_HEIGHT = 15f;
         final float H_GAP = 5f; // horizontal gap between bricks
         final float V_GAP = 5f; // vertical gap between rows
@@ -289,77 +588,79 @@ public class BrickerGameManager extends GameManager{
         final float brickWidth = (USABLE_W - (BRICKS_PER_ROW - 1) * H_GAP) / BRICKS_PER_ROW;
         final float TOP_Y = BORDER_WIDTH + H_GAP; // place grid below the top wall
 
-        Renderable brickImage = imageReader.readImage("assets/brick.png", true);
-        BasicCollisionStrategy basic = new BasicCollisionStrategy(gameObjects(), bricksLeft);
-
-        Brick[][] brickGrid = new Brick[NUMBER_OF_ROWS][BRICKS_PER_ROW];
-
-        // First pass: create bricks and place them in the grid
-        for (int row = 0; row < NUMBER_OF_ROWS; row++) {
-            float y = TOP_Y + row * (BRICK_HEIGHT + V_GAP);
-            for (int col = 0; col < BRICKS_PER_ROW; col++) {
-                float x = LEFT_X + col * (brickWidth + H_GAP);
-                Brick brick = new Brick(
-                        new Vector2(x, y),
-                        new Vector2(brickWidth, BRICK_HEIGHT),
-                        brickImage,
-                        row, col,
-                        basic
-                );
-                brickGrid[row][col] = brick;
-                gameObjects().addGameObject(brick, Layer.STATIC_OBJECTS);
+        Renderable brickImage = assets.image(AssetRegistry.BRICK_IMAGE);
+        Renderable paddleImage = assets.image(AssetRegistry.PADDLE_IMAGE);
+        BasicCollisionStrategy basic = new BasicCollisionStrategy(bricksLeft);
+
+        if (level != null) {
+            // tall levels show the rows fitting in the upper half of the window and page the rest
+            int visibleRows = Math.max(1,
+                    (int) ((windowDimensions.y() / 2 - TOP_Y + V_GAP) / (BRICK_HEIGHT + V_GAP)));
+            brickField = new BrickField(level, visibleRows, LEFT_X, TOP_Y,
+                    brickWidth, BRICK_HEIGHT, H_GAP, V_GAP, brickImage);
+        } else {
+            brickField = new BrickField(NUMBER_OF_ROWS, BRICKS_PER_ROW, LEFT_X, TOP_Y,
+                    brickWidth, BRICK_HEIGHT, H_GAP, V_GAP, brickImage);
+        }
+        // rows of a tall random grid that reach below the window are never drawn
+        brickField.clipTo(windowDimensions.y());
+        ExplosionCascade cascade = new ExplosionCascade(brickField);
+        brickField.countDestroyedIn(metrics, "bricks.destroyed.");
+        cascade.setHistograms(metrics.histogram("cascade.size", COUNT_BUCKETS),
+                metrics.histogram("cascade.depth", COUNT_BUCKETS));
+
+        Vector2 paddleDimensions = new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT);
+        bricker.gameobjects.FallingHeart.LifeRestoreCallback lifeRestoreCallback =
+                new bricker.gameobjects.FallingHeart.LifeRestoreCallback() {
+                    @Override
+                    public void restoreLife() {
+                        BrickerGameManager.this.restoreLife();
+                    }
+                };
+
+        // one shared strategy per distinct combination, whatever the number of bricks
+        StrategyTable strategies = new StrategyTable(
+                basic,
+                mutations,
+                assets,
+                audio,
+                windowDimensions,
+                pucks,
+                paddleDimensions,
+                paddleImage,
+                input,
+                bricksLeft,
+                extraPaddles,
+                cascade,
+                originalPaddle,
+                lifeRestoreCallback);
+
+        if (level != null) {
+            // the field asks for a code's strategy the first time it pages the code in
+            brickField.populate(strategies::get);
+        } else {
+            GameRandom rand = layoutRandom;
+            float specialChance = 0.5f; // 50% of bricks will be special
+
+            // Single pass: decide each brick's strategy first, then store it once.
+            // Cells are visited in the same row-major order as before, so the random draws and
+            // the resulting strategy distribution are unchanged.
+            for (int row = 0; row < NUMBER_OF_ROWS; row++) {
+                for (int col = 0; col < BRICKS_PER_ROW; col++) {
+                    CollisionStrategy strategy = basic;
+
+                    // decide if this brick becomes special
+                    if (rand.nextFloat() < specialChance) {
+                        strategy = strategies.getRandomSpecial(rand);
+                    }
+
+                    brickField.set(row, col, strategy);
+                }
             }
         }
-
-        // Second pass: decorate bricks with special strategies
-        Random rand = new Random();
-        float specialChance = 0.5f; // 50% of bricks will be special
-
-        for (int row = 0; row < NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < BRICKS_PER_ROW; col++) {
-                Brick brick = brickGrid[row][col];
-                if (brick == null) continue;
-
-                // decide if this brick becomes special
-                if (rand.nextFloat() < specialChance) {
-                    CollisionStrategy decorated = StrategyFactory.createRandomSpecialStrategy(
-                            basic,
-                            gameObjects(),
-                            imageReader,
-                            soundReader,
-                            windowDimensions,
-                            PUCK_SIZE,
-                            PUCK_SPEED,
-                            new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
-                            imageReader.readImage("assets/paddle.png", true),
-                            input,
-                            bricksLeft,
-                            brickGrid,
-                            originalPaddle,
-                            new bricker.gameobjects.FallingHeart.LifeRestoreCallback() {
-                                @Override
-                                public void restoreLife() {
-                                    BrickerGameManager.this.restoreLife();
-                                }
-                            },
-                            rand
-                    );
-
-                     // Replace the brick's strategy by constructing a new Brick with same position
-                     Brick newBrick = new Brick(brick.getTopLeftCorner(),
-                             brick.getDimensions(),
-                             brickImage,
-                             row,
-                             col,
-                             decorated);
-                     // remove old and add new
-                     gameObjects().removeGameObject(brick, Layer.STATIC_OBJECTS);
-                     brickGrid[row][col] = newBrick;
-                     gameObjects().addGameObject(newBrick, Layer.STATIC_OBJECTS);
-                 }
-             }
-         }
-     }
+        gameObjects().addGameObject(brickField, BrickField.LAYER);
+        collisionWorld.setBrickField(brickField);
+    }
 
     /**
      * Create the left, right and upper static walls used for collision.
@@ -383,5 +684,8 @@ public class BrickerGameManager extends GameManager{
         gameObjects().addGameObject(leftWall, Layer.STATIC_OBJECTS);
         gameObjects().addGameObject(rightWall, Layer.STATIC_OBJECTS);
         gameObjects().addGameObject(upperWall, Layer.STATIC_OBJECTS);
+        collisionWorld.addWall(leftWall);
+        collisionWorld.addWall(rightWall);
+        collisionWorld.addWall(upperWall);
     }
 }
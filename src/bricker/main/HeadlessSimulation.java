@@ -0,0 +1,535 @@
+package bricker.main;
+
+import bricker.gameobjects.AutopilotPaddle;
+import bricker.gameobjects.PuckManager;
+import bricker.levels.Level;
+import bricker.levels.LevelFile;
+import bricker.metrics.CsvSnapshotExporter;
+import bricker.metrics.MetricsRegistry;
+import bricker.replay.InputRecorder;
+import bricker.replay.InputReplay;
+import bricker.util.StateHash;
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Drives {@link BrickerGameManager#update(float)} at a fixed timestep without opening a window.
+ * Images and sounds are never decoded, no keys are ever pressed (an autopilot can steer the
+ * paddle instead), and end-of-game dialogs are answered automatically, so the game loop runs as
+ * fast as the CPU allows. Used to measure simulated frames per second on large grids.
+ * <p>
+ * Runs are seeded: the same seed always replays the same games. A run can record a per-frame
+ * state hash, and {@link #verify(int)} runs the same workload twice and reports the first
+ * frame at which the two runs diverge.
+ * <p>
+ * All games of a simulation record into one {@link MetricsRegistry}, which can be exported as
+ * periodic CSV snapshots.
+ * <p>
+ * With an {@link InputReplay} set, the recorded keys and frame times are replayed instead, and a
+ * reset re-initializes the same game manager as the engine does, so a recorded interactive
+ * session plays out identically.
+ */
+public class HeadlessSimulation {
+    private static final float DEFAULT_TIMESTEP = 1f / 60f;
+    private static final int DEFAULT_FRAMES = 10_000;
+    private static final float NANOS_PER_SECOND = 1e9f;
+    private static final float NANOS_PER_MILLI = 1e6f;
+    private static final long DEFAULT_SEED = 42;
+    private static final String VERIFY_FLAG = "--verify";
+    private static final String METRICS_FLAG = "--metrics=";
+    private static final String LEVEL_FLAG = "--level=";
+    private static final String BOT_FLAG = "--bot=";
+    private static final String PUCKS_FLAG = "--pucks=";
+    private static final int METRICS_INTERVAL_FRAMES = 600;
+
+    private final int bricksPerRow;
+    private final int numberOfRows;
+    private final Vector2 windowDimensions;
+    private final float timestep;
+    private final boolean restartOnGameEnd;
+    private final long seed;
+    private final StateHash stateHash = new StateHash();
+    private MetricsRegistry metrics = new MetricsRegistry();
+    private CsvSnapshotExporter metricsExporter;
+    private InputReplay replay;
+    private InputRecorder inputRecorder;
+    private Level level;
+    private AutopilotPaddle.Skill autopilot;
+    private int maxLivePucks;
+    private PuckManager.Policy puckPolicy; // null for the game's default budget
+    private final WindowController windowController;
+    private final UserInputListener inputListener;
+    private final ImageReader imageReader;
+    private final SoundReader soundReader;
+
+    private boolean resetRequested;
+    private boolean windowClosed;
+
+    /**
+     * Summary of a finished headless run.
+     */
+    public static class Result {
+        private final int frames;
+        private final int gamesPlayed;
+        private final int gamesWon;
+        private final long elapsedNanos;
+        private final long stateHash;
+
+        private Result(int frames, int gamesPlayed, int gamesWon, long elapsedNanos,
+                       long stateHash) {
+            this.frames = frames;
+            this.gamesPlayed = gamesPlayed;
+            this.gamesWon = gamesWon;
+            this.elapsedNanos = elapsedNanos;
+            this.stateHash = stateHash;
+        }
+
+        /**
+         * @return number of frames simulated
+         */
+        public int getFrames() { return frames; }
+
+        /**
+         * @return number of games started during the run, including the first one
+         */
+        public int getGamesPlayed() { return gamesPlayed; }
+
+        /**
+         * @return number of games that ended with every brick destroyed
+         */
+        public int getGamesWon() { return gamesWon; }
+
+        /**
+         * @return wall-clock time spent in the update loop, in nanoseconds
+         */
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * @return digest of every recorded frame hash, or 0 if frame hashes were not recorded
+         */
+        public long getStateHash() { return stateHash; }
+
+        /**
+         * @return simulated frames per wall-clock second
+         */
+        public float getFramesPerSecond() {
+            return elapsedNanos == 0 ? 0f : frames * NANOS_PER_SECOND / elapsedNanos;
+        }
+    }
+
+    /**
+     * Construct a headless simulation.
+     *
+     * @param bricksPerRow number of bricks per row
+     * @param numberOfRows number of rows of bricks
+     * @param windowDimensions simulated window dimensions
+     * @param timestep fixed time passed to every update, in seconds
+     * @param restartOnGameEnd if true, a won or lost game is reset and the run continues;
+     *                         otherwise the run stops at the end of the first game
+     */
+    public HeadlessSimulation(int bricksPerRow,
+                              int numberOfRows,
+                              Vector2 windowDimensions,
+                              float timestep,
+                              boolean restartOnGameEnd) {
+        this(bricksPerRow, numberOfRows, windowDimensions, timestep, restartOnGameEnd, DEFAULT_SEED);
+    }
+
+    /**
+     * Construct a headless simulation with an explicit seed.
+     *
+     * @param bricksPerRow number of bricks per row
+     * @param numberOfRows number of rows of bricks
+     * @param windowDimensions simulated window dimensions
+     * @param timestep fixed time passed to every update, in seconds
+     * @param restartOnGameEnd if true, a won or lost game is reset and the run continues;
+     *                         otherwise the run stops at the end of the first game
+     * @param seed seed of the game manager; every game of a run derives its seed from it
+     */
+    public HeadlessSimulation(int bricksPerRow,
+                              int numberOfRows,
+                              Vector2 windowDimensions,
+                              float timestep,
+                              boolean restartOnGameEnd,
+                              long seed) {
+        this.seed = seed;
+        this.bricksPerRow = bricksPerRow;
+        this.numberOfRows = numberOfRows;
+        this.windowDimensions = windowDimensions;
+        this.timestep = timestep;
+        this.restartOnGameEnd = restartOnGameEnd;
+        this.windowController = createWindowController();
+        this.inputListener = createInputListener();
+        this.imageReader = new HeadlessImageReader(windowController);
+        this.soundReader = new HeadlessSoundReader(windowController);
+    }
+
+    /**
+     * Create and initialize a fresh game instance wired to the headless stubs.
+     *
+     * @return an initialized game, ready for {@link BrickerGameManager#update(float)}
+     */
+    public BrickerGameManager newGame() {
+        BrickerGameManager game = level == null
+                ? new BrickerGameManager(
+                        "Bricker (headless)", windowDimensions, bricksPerRow, numberOfRows, seed)
+                : new BrickerGameManager("Bricker (headless)", windowDimensions, level, seed);
+        game.setMetrics(metrics);
+        game.setAutopilot(autopilot);
+        game.setInputRecorder(inputRecorder);
+        if (puckPolicy != null) game.setPuckBudget(maxLivePucks, puckPolicy);
+        game.initializeGame(imageReader, soundReader, inputListener, windowController);
+        return game;
+    }
+
+    /**
+     * @return image reader that returns no renderables
+     */
+    public ImageReader getImageReader() { return imageReader; }
+
+    /**
+     * @return sound reader that returns no sounds
+     */
+    public SoundReader getSoundReader() { return soundReader; }
+
+    /**
+     * @return registry shared by every game of this simulation
+     */
+    public MetricsRegistry getMetrics() { return metrics; }
+
+    /**
+     * Record the games of this simulation into {@code metrics} instead of a private registry.
+     * Registries are thread-safe, so simulations running in parallel may share one.
+     *
+     * @param metrics the registry to record into
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param metricsExporter exporter notified after every simulated frame; null for none.
+     *                        The caller closes it.
+     */
+    public void setMetricsExporter(CsvSnapshotExporter metricsExporter) {
+        this.metricsExporter = metricsExporter;
+    }
+
+    /**
+     * @param level brick layout of the games created from now on, replacing the random grid of
+     *              the constructor's size; null to go back to random grids
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * @param autopilot skill of the autopilot steering the paddle in the games created from now
+     *                  on; null to leave the paddle to the (headless) input
+     */
+    public void setAutopilot(AutopilotPaddle.Skill autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * Limit the number of live pucks in the games created from now on.
+     *
+     * @param maxLive largest number of pucks in a game at the same time
+     * @param policy what to do with the spawns beyond {@code maxLive}; null for the game's
+     *               default budget
+     */
+    public void setPuckBudget(int maxLive, PuckManager.Policy policy) {
+        this.maxLivePucks = maxLive;
+        this.puckPolicy = policy;
+    }
+
+    /**
+     * @param replay recording whose keys and frame times drive the following runs; null to press
+     *               no keys and use the fixed timestep. Each run rewinds it, and stops at its end.
+     */
+    public void setReplay(InputReplay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * @param inputRecorder recorder of the keys and frame times of the games created from now
+     *                      on; null to record nothing. The caller closes it.
+     */
+    public void setInputRecorder(InputRecorder inputRecorder) {
+        this.inputRecorder = inputRecorder;
+    }
+
+    /**
+     * @return input listener reporting the replayed keys, or no keys without a replay
+     */
+    public UserInputListener getInputListener() { return inputListener; }
+
+    /**
+     * Run the game loop for up to {@code maxFrames} frames.
+     *
+     * @param maxFrames maximum number of frames to simulate
+     * @return timing summary of the run
+     */
+    public Result run(int maxFrames) {
+        return run(maxFrames, null);
+    }
+
+    /**
+     * Run the game loop for up to {@code maxFrames} frames, optionally recording the state
+     * hash after every frame.
+     *
+     * @param maxFrames maximum number of frames to simulate
+     * @param frameHashes if not null, receives the state hash of each simulated frame; must hold
+     *                    at least {@code maxFrames} entries
+     * @return timing summary of the run
+     */
+    public Result run(int maxFrames, long[] frameHashes) {
+        windowClosed = false;
+        resetRequested = false;
+
+        if (replay != null) replay.rewind();
+        BrickerGameManager game = newGame();
+        int gamesPlayed = 1;
+        int gamesWon = 0;
+        int frame = 0;
+        StateHash runHash = new StateHash();
+
+        long start = System.nanoTime();
+        while (frame < maxFrames && !windowClosed) {
+            float deltaTime = timestep;
+            if (replay != null) {
+                if (!replay.advance()) break;
+                deltaTime = replay.getDeltaTime();
+            }
+            game.update(deltaTime);
+            if (frameHashes != null) {
+                frameHashes[frame] = game.stateHash(stateHash);
+                runHash.add(frameHashes[frame]);
+            }
+            frame++;
+            if (metricsExporter != null) metricsExporter.onFrame(frame);
+            if ((resetRequested || windowClosed) && game.getBricksLeft() <= 0) gamesWon++;
+            if (resetRequested) {
+                resetRequested = false;
+                // like the engine's reset: the same manager draws the next game's seed
+                game.initializeGame(imageReader, soundReader, inputListener, windowController);
+                gamesPlayed++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(frame, gamesPlayed, gamesWon, elapsed,
+                frameHashes == null ? 0 : runHash.value());
+    }
+
+    /**
+     * Run the same seeded workload twice and compare the per-frame state hashes.
+     *
+     * @param maxFrames maximum number of frames per run
+     * @return the first frame whose hashes differ, or -1 if the runs are bit-identical
+     */
+    public int verify(int maxFrames) {
+        long[] first = new long[maxFrames];
+        long[] second = new long[maxFrames];
+        int firstFrames = run(maxFrames, first).getFrames();
+        int secondFrames = run(maxFrames, second).getFrames();
+        int frames = Math.min(firstFrames, secondFrames);
+        for (int frame = 0; frame < frames; frame++) {
+            if (first[frame] != second[frame]) return frame;
+        }
+        return firstFrames == secondFrames ? -1 : frames;
+    }
+
+    /**
+     * Entry point for headless runs.
+     *
+     * @param args optional arguments: [--verify] [--metrics=FILE] [--level=FILE]
+     *             [--bot=good|bad] [--pucks=MAX[:drop|merge|defer]] cols rows [frames]
+     *             [timestep] [seed]; with a level, cols and rows are ignored
+     */
+    public static void main(String[] args) {
+        int cols = 8;
+        int rows = 7;
+        int frames = DEFAULT_FRAMES;
+        float timestep = DEFAULT_TIMESTEP;
+        long seed = DEFAULT_SEED;
+        boolean verify = false;
+        String metricsFile = null;
+        Level level = null;
+        AutopilotPaddle.Skill autopilot = null;
+        int maxLivePucks = 0;
+        PuckManager.Policy puckPolicy = null;
+        int options = 0;
+        while (args != null && options < args.length && args[options].startsWith("--")) {
+            if (VERIFY_FLAG.equals(args[options])) verify = true;
+            else if (args[options].startsWith(METRICS_FLAG)) {
+                metricsFile = args[options].substring(METRICS_FLAG.length());
+            } else if (args[options].startsWith(LEVEL_FLAG)) {
+                level = LevelFile.read(Paths.get(args[options].substring(LEVEL_FLAG.length())));
+            } else if (args[options].startsWith(BOT_FLAG)) {
+                autopilot = AutopilotPaddle.Skill.valueOf(
+                        args[options].substring(BOT_FLAG.length()).toUpperCase(Locale.ROOT));
+            } else if (args[options].startsWith(PUCKS_FLAG)) {
+                String[] budget = args[options].substring(PUCKS_FLAG.length()).split(":");
+                maxLivePucks = Integer.parseInt(budget[0]);
+                puckPolicy = budget.length > 1
+                        ? PuckManager.Policy.valueOf(budget[1].toUpperCase(Locale.ROOT))
+                        : PuckManager.Policy.DROP;
+            }
+            options++;
+        }
+        if (args != null) args = Arrays.copyOfRange(args, options, args.length);
+        if (args != null && args.length >= 2) {
+            cols = Integer.parseInt(args[0]);
+            rows = Integer.parseInt(args[1]);
+        }
+        if (args != null && args.length >= 3) frames = Integer.parseInt(args[2]);
+        if (args != null && args.length >= 4) timestep = Float.parseFloat(args[3]);
+        if (args != null && args.length >= 5) seed = Long.parseLong(args[4]);
+
+        HeadlessSimulation simulation = new HeadlessSimulation(
+                cols, rows, new Vector2(1000, 700), timestep, true, seed);
+        simulation.setAutopilot(autopilot);
+        simulation.setPuckBudget(maxLivePucks, puckPolicy);
+        if (level != null) {
+            simulation.setLevel(level);
+            cols = level.getCols();
+            rows = level.getRows();
+        }
+        if (verify) {
+            int divergence = simulation.verify(frames);
+            if (divergence < 0) {
+                System.out.printf("%dx%d seed %d: %d frames bit-identical%n", cols, rows, seed, frames);
+            } else {
+                System.out.printf("%dx%d seed %d: runs diverge at frame %d%n",
+                        cols, rows, seed, divergence);
+            }
+            return;
+        }
+        Result result;
+        if (metricsFile != null) {
+            try (CsvSnapshotExporter exporter = new CsvSnapshotExporter(
+                    simulation.getMetrics(), Paths.get(metricsFile), METRICS_INTERVAL_FRAMES)) {
+                simulation.setMetricsExporter(exporter);
+                result = simulation.run(frames);
+            }
+        } else {
+            result = simulation.run(frames);
+        }
+        System.out.printf("%dx%d: %d frames, %d games in %.1f ms (%.0f simulated frames/s)%n",
+                cols, rows, result.getFrames(), result.getGamesPlayed(),
+                result.getElapsedNanos() / NANOS_PER_MILLI, result.getFramesPerSecond());
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Create a window controller that reports the simulated window size and answers
+     * the play-again dialog according to {@code restartOnGameEnd}.
+     */
+    private WindowController createWindowController() {
+        return stub(WindowController.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getWindowDimensions":
+                    return windowDimensions;
+                case "openYesNoDialog":
+                    return restartOnGameEnd;
+                case "resetGame":
+                    resetRequested = true;
+                    return null;
+                case "closeWindow":
+                    windowClosed = true;
+                    return null;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Create an input listener that reports the replayed keys; without a replay, no key or button
+     * is ever pressed.
+     */
+    private UserInputListener createInputListener() {
+        return stub(UserInputListener.class, (proxy, method, args) -> {
+            if (replay != null && "isKeyPressed".equals(method.getName())) {
+                return replay.isKeyPressed((Integer) args[0]);
+            }
+            return defaultValue(method);
+        });
+    }
+
+    /**
+     * Implement an engine interface with a dynamic proxy, so only the methods the game
+     * actually relies on need to be handled explicitly.
+     */
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (self, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return self == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(self);
+                            default:
+                                return type.getSimpleName() + "(headless)";
+                        }
+                    }
+                    return handler.invoke(self, method, args);
+                });
+        return type.cast(proxy);
+    }
+
+    /**
+     * @return the zero value for the method's return type
+     */
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        return null;
+    }
+
+    /**
+     * Image reader that never decodes anything; game objects are created without renderables.
+     */
+    private static class HeadlessImageReader extends ImageReader {
+        HeadlessImageReader(WindowController windowController) {
+            super(windowController);
+        }
+
+        @Override
+        public ImageRenderable readImage(String imageFilePath, boolean useTransparency) {
+            return null;
+        }
+    }
+
+    /**
+     * Sound reader that never opens the audio device; every sound is {@code null}.
+     */
+    private static class HeadlessSoundReader extends SoundReader {
+        HeadlessSoundReader(WindowController windowController) {
+            super(windowController);
+        }
+
+        @Override
+        public Sound readSound(String soundFilePath) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package bricker.main;
+
+import bricker.assets.AssetRegistry;
+import bricker.brick_strategies.BasicCollisionStrategy;
+import bricker.brick_strategies.ExplosionCascade;
+import bricker.brick_strategies.StrategyFactory.StrategyType;
+import bricker.brick_strategies.StrategyTable;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.CollisionWorld;
+import bricker.gameobjects.MutationQueue;
+import bricker.gameobjects.PuckManager;
+import bricker.levels.Level;
+import bricker.util.GameRandom;
+import danogl.GameObject;
+import danogl.util.Counter;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Headless check that explosion cascades stay inside the visible rows of a paged level. A tall
+ * level made only of exploding, puck-spawning bricks is hit at the bottom of its view; the
+ * cascade clears the view, and its pucks, and the pucks of every later cascade as the view
+ * scrolls up, must all bounce off the top wall and leave through the bottom of the window. A
+ * brick struck above the view would spawn its pucks above the top wall, where they would fly up
+ * forever and never be released.
+ * <p>
+ * Exits with status 1 if live pucks remain after the frame limit.
+ */
+public class PagedCascadeCheck {
+    private static final Vector2 WINDOW = new Vector2(1000, 700);
+    private static final float WALL_WIDTH = 30;
+    private static final float FIELD_TOP = 40;
+    private static final float BRICK_WIDTH = 110;
+    private static final float BRICK_HEIGHT = 15;
+    private static final float GAP = 5;
+    private static final int COLS = 8;
+    private static final int ROWS = 40;
+    private static final int VISIBLE_ROWS = 8;
+    private static final float PUCK_SIZE = 26;
+    private static final float PUCK_SPEED = 250;
+    private static final int MAX_LIVE_PUCKS = 128;
+    private static final float TIMESTEP = 1f / 60f;
+    private static final int MAX_FRAMES = 60 * 60 * 10;
+    private static final long SEED = 42;
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        HeadlessSimulation simulation =
+                new HeadlessSimulation(COLS, ROWS, WINDOW, TIMESTEP, false, SEED);
+        BrickerGameManager game = simulation.newGame();
+        MutationQueue mutations = new MutationQueue(game.gameObjects());
+
+        byte[] cells = new byte[COLS * ROWS];
+        StrategyType[] specials = { StrategyType.ADDITIONAL_BALLS, StrategyType.EXPLODING_BRICKS };
+        Arrays.fill(cells, (byte) Level.encode(specials, specials.length));
+        Level level = new Level(COLS, ROWS, cells);
+        BrickField field = new BrickField(level, VISIBLE_ROWS, WALL_WIDTH + GAP, FIELD_TOP,
+                BRICK_WIDTH, BRICK_HEIGHT, GAP, GAP, null);
+
+        CollisionWorld world = new CollisionWorld();
+        world.addWall(new GameObject(Vector2.ZERO, new Vector2(WINDOW.x(), WALL_WIDTH), null));
+        world.addWall(new GameObject(Vector2.ZERO, new Vector2(WALL_WIDTH, WINDOW.y()), null));
+        world.addWall(new GameObject(new Vector2(WINDOW.x() - WALL_WIDTH, 0),
+                new Vector2(WALL_WIDTH, WINDOW.y()), null));
+        world.setBrickField(field);
+
+        PuckManager pucks = new PuckManager(MAX_LIVE_PUCKS, new Vector2(PUCK_SIZE, PUCK_SIZE),
+                null, null, mutations, world, new GameRandom(SEED), WINDOW, PUCK_SPEED);
+        pucks.setBudget(MAX_LIVE_PUCKS, PuckManager.Policy.DROP);
+        Counter bricksLeft = new Counter(level.getBrickCount());
+        ExplosionCascade cascade = new ExplosionCascade(field);
+        StrategyTable strategies = new StrategyTable(new BasicCollisionStrategy(bricksLeft),
+                mutations, AssetRegistry.getInstance(), null, WINDOW, pucks,
+                new Vector2(BRICK_WIDTH, BRICK_HEIGHT), null, simulation.getInputListener(),
+                bricksLeft, new Counter(0), cascade,
+                new GameObject(Vector2.ZERO, new Vector2(BRICK_WIDTH, BRICK_HEIGHT), null),
+                game::restoreLife);
+        field.populate(strategies::get);
+
+        int bottom = ROWS - 1;
+        GameObject hitter = new GameObject(Vector2.ZERO, new Vector2(PUCK_SIZE, PUCK_SIZE), null);
+        field.claim(bottom, 0);
+        field.strike(bottom, 0, hitter);
+        int firstCascade = cascade.getLastCascadeSize();
+        mutations.flush();
+
+        int frame = 0;
+        int peak = pucks.getLive();
+        while (frame < MAX_FRAMES && (pucks.getLive() > 0 || pucks.getWaiting() > 0)) {
+            pucks.update(TIMESTEP);
+            mutations.flush();
+            field.advanceView();
+            peak = Math.max(peak, pucks.getLive());
+            frame++;
+        }
+
+        System.out.printf("%dx%d level, %d visible rows: first cascade %d bricks, "
+                        + "%d bricks left, peak pucks %d, %d live after %d frames%n",
+                COLS, ROWS, VISIBLE_ROWS, firstCascade, field.getAliveCount(), peak,
+                pucks.getLive(), frame);
+        if (firstCascade > COLS * VISIBLE_ROWS || pucks.getLive() > 0) {
+            System.out.println("FAILED: the cascade reached bricks above the view");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
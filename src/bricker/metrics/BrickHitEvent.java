@@ -0,0 +1,30 @@
+package bricker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one {@code Brick.onCollisionEnter} call, that is the whole
+ * strategy of a hit brick, including any explosion cascade it drains.
+ */
+@Name("bricker.BrickHit")
+@Label("Brick Hit")
+@Category({"Bricker", "Collisions"})
+@Description("A brick was hit and its collision strategy ran")
+public class BrickHitEvent extends jdk.jfr.Event {
+    @Label("Strategy")
+    @Description("Name of the brick's strategy, e.g. ExplodingBrick+ReturnLife")
+    public String strategy;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Hitter")
+    @Description("Class of the object that hit the brick")
+    public Class<?> hitter;
+}
@@ -0,0 +1,75 @@
+package bricker.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends a CSV snapshot of a {@link MetricsRegistry} every {@code intervalFrames} frames, and a
+ * final one when closed. Every snapshot repeats all metrics, so rows for one metric form a time
+ * series keyed by the {@code frame} column.
+ */
+public class CsvSnapshotExporter implements Closeable {
+    private final MetricsRegistry registry;
+    private final Writer out;
+    private final int intervalFrames;
+    private long lastFrame = -1;
+    private long lastWrittenFrame = -1;
+
+    /**
+     * Open a CSV file and write its header.
+     *
+     * @param registry metrics to export
+     * @param path destination file; replaced if it exists
+     * @param intervalFrames number of frames between snapshots
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public CsvSnapshotExporter(MetricsRegistry registry, Path path, int intervalFrames) {
+        this.registry = registry;
+        this.intervalFrames = Math.max(1, intervalFrames);
+        try {
+            this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            MetricsRegistry.writeCsvHeader(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write metrics to " + path, e);
+        }
+    }
+
+    /**
+     * Called after every frame; writes a snapshot when the interval has elapsed.
+     *
+     * @param frame number of frames simulated so far
+     */
+    public void onFrame(long frame) {
+        lastFrame = frame;
+        if (frame % intervalFrames == 0) write(frame);
+    }
+
+    /**
+     * Write a final snapshot (unless one was just written) and close the file.
+     */
+    @Override
+    public void close() {
+        if (lastFrame >= 0 && lastFrame != lastWrittenFrame) write(lastFrame);
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*====== Helpers =======*/
+    private void write(long frame) {
+        try {
+            registry.writeCsv(out, frame);
+            out.flush();
+            lastWrittenFrame = frame;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package bricker.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram of non-negative long values. Recording is lock-free: it finds the
+ * bucket by binary search over the (immutable) bucket bounds and bumps an atomic slot, so
+ * several threads may record concurrently. Percentiles are reported as the upper bound of the
+ * bucket holding the requested rank, which is exact enough for spotting where time goes.
+ */
+public class Histogram {
+    private final long[] upperBounds;
+    // one slot per bound, plus an overflow slot for values above the last bound
+    private final AtomicLongArray buckets;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Construct an empty histogram.
+     *
+     * @param upperBounds inclusive upper bound of every bucket, in increasing order
+     */
+    public Histogram(long[] upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("bucket bounds must be increasing");
+            }
+        }
+        this.upperBounds = upperBounds.clone();
+        this.buckets = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    /**
+     * Create bucket bounds growing geometrically: {@code first}, {@code first * factor}, ...
+     *
+     * @param first upper bound of the first bucket; must be positive
+     * @param factor growth factor between consecutive bounds; must be greater than 1
+     * @param count number of buckets
+     * @return the bounds
+     */
+    public static long[] exponentialBounds(long first, double factor, int count) {
+        long[] bounds = new long[count];
+        double bound = first;
+        for (int i = 0; i < count; i++) {
+            bounds[i] = i == 0 ? first : Math.max(bounds[i - 1] + 1, Math.round(bound));
+            bound *= factor;
+        }
+        return bounds;
+    }
+
+    /**
+     * Record one value.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        int low = 0;
+        int high = upperBounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upperBounds[mid] < value) low = mid + 1;
+            else high = mid;
+        }
+        buckets.incrementAndGet(low);
+        sum.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) seen = max.get();
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) count += buckets.get(i);
+        return count;
+    }
+
+    /**
+     * @return sum of recorded values
+     */
+    public long getSum() { return sum.sum(); }
+
+    /**
+     * @return largest recorded value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        long seen = max.get();
+        return seen == Long.MIN_VALUE ? 0 : seen;
+    }
+
+    /**
+     * Estimate a percentile.
+     *
+     * @param percentile requested percentile, in {@code [0, 100]}
+     * @return upper bound of the bucket holding that rank (the maximum for the overflow
+     *         bucket), or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(upperBounds[i], getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Add every value recorded by {@code other} to this histogram. Both must have the same
+     * bucket bounds.
+     *
+     * @param other the histogram to merge in
+     */
+    public void merge(Histogram other) {
+        if (other.upperBounds.length != upperBounds.length) {
+            throw new IllegalArgumentException("histograms have different buckets");
+        }
+        for (int i = 0; i < buckets.length(); i++) buckets.addAndGet(i, other.buckets.get(i));
+        sum.add(other.getSum());
+        long otherMax = other.max.get();
+        long seen = max.get();
+        while (otherMax > seen && !max.compareAndSet(seen, otherMax)) seen = max.get();
+    }
+}
@@ -0,0 +1,110 @@
+package bricker.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process registry of named metrics: monotonically increasing counters, fixed-bucket
+ * {@link Histogram}s and gauges sampled on demand. Metrics are created on first lookup and
+ * should be looked up once and kept, so the per-frame cost is a single lock-free update.
+ * A registry can be shared by several games, including games running on different threads.
+ */
+public class MetricsRegistry {
+    private static final String CSV_HEADER = "frame,metric,count,sum,mean,p50,p90,p99,max";
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Return the counter with the given name, creating it if needed.
+     *
+     * @param name metric name
+     * @return the counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Return the histogram with the given name, creating it with {@code upperBounds} if needed.
+     *
+     * @param name metric name
+     * @param upperBounds bucket bounds used if the histogram does not exist yet
+     * @return the histogram
+     */
+    public Histogram histogram(String name, long[] upperBounds) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(upperBounds));
+    }
+
+    /**
+     * @param name metric name
+     * @return the histogram with the given name, or null if it was never created
+     */
+    public Histogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Register a gauge, replacing any gauge of the same name. Gauges are only sampled when a
+     * snapshot is written.
+     *
+     * @param name metric name
+     * @param supplier reads the current value
+     */
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Write the CSV header line matching {@link #writeCsv(Appendable, long)}.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public static void writeCsvHeader(Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+    }
+
+    /**
+     * Write one CSV row per metric, sorted by name. Counters and gauges fill only the
+     * {@code count} column.
+     *
+     * @param out destination
+     * @param frame frame number the snapshot is taken at
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Appendable out, long frame) throws IOException {
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            writeValue(out, frame, entry.getKey(), entry.getValue().sum());
+        }
+        for (Map.Entry<String, LongSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            writeValue(out, frame, entry.getKey(), entry.getValue().getAsLong());
+        }
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.getCount();
+            out.append(Long.toString(frame)).append(',')
+                    .append(entry.getKey()).append(',')
+                    .append(Long.toString(count)).append(',')
+                    .append(Long.toString(histogram.getSum())).append(',')
+                    .append(count == 0 ? "0" : Long.toString(histogram.getSum() / count)).append(',')
+                    .append(Long.toString(histogram.getPercentile(50))).append(',')
+                    .append(Long.toString(histogram.getPercentile(90))).append(',')
+                    .append(Long.toString(histogram.getPercentile(99))).append(',')
+                    .append(Long.toString(histogram.getMax())).append('\n');
+        }
+    }
+
+    /*====== Helpers =======*/
+    private static void writeValue(Appendable out, long frame, String name, long value)
+            throws IOException {
+        out.append(Long.toString(frame)).append(',')
+                .append(name).append(',')
+                .append(Long.toString(value)).append(",,,,,,\n");
+    }
+}
@@ -0,0 +1,36 @@
+package bricker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one part of a brick's collision strategy. A special brick
+ * produces one event for its base strategy, which removes the brick, and one for each of its
+ * special behaviors, told apart by their {@link #position}.
+ */
+@Name("bricker.StrategyExecution")
+@Label("Strategy Execution")
+@Category({"Bricker", "Collisions"})
+@Description("Execution of one brick collision strategy")
+public class StrategyExecutionEvent extends jdk.jfr.Event {
+    @Label("Strategy Type")
+    @Description("StrategyFactory.StrategyType of the executed strategy")
+    public String strategyType;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Position")
+    @Description("0 for the base strategy removing the brick; n for the n-th special behavior of "
+            + "its combination, in execution order")
+    public int position;
+
+    @Label("Spawned Objects")
+    @Description("Game objects queued for addition while the strategy ran")
+    public long spawned;
+}
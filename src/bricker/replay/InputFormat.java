@@ -0,0 +1,44 @@
+package bricker.replay;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Layout of an input recording file. All numbers are big-endian.
+ * <pre>
+ * header:  magic "BRKI" | version (byte) | seed (long) | cols (int) | rows (int)
+ *          | window width (float) | window height (float) | autopilot (byte, version 2 on)
+ * records: gap (varint) | flags (byte) [| delta time (float), if FLAG_DELTA_TIME]
+ * </pre>
+ * A record is only written on frames where the key state or the frame's delta time changed;
+ * {@code gap} is the number of frames since the previous record (the first record is at frame
+ * 0). The low bits of {@code flags} are the key mask, one bit per entry of {@link #KEYS}.
+ * The final record has {@link #FLAG_END} set; its gap makes the frame count of the session.
+ * The autopilot byte is 0 for a session played by hand, otherwise 1 plus the ordinal of the
+ * {@link bricker.gameobjects.AutopilotPaddle.Skill} that steered the paddle; version 1
+ * recordings have no autopilot byte and were all played by hand.
+ */
+final class InputFormat {
+    static final int MAGIC = 0x42524B49; // "BRKI"
+    static final int VERSION = 2;
+    static final int FIRST_VERSION_WITH_AUTOPILOT = 2;
+    static final int NO_AUTOPILOT = 0;
+
+    /** Keys polled by the game, in mask bit order. */
+    static final int[] KEYS = { KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_W };
+
+    static final int FLAG_END = 0x40;
+    static final int FLAG_DELTA_TIME = 0x80;
+    static final int KEY_MASK = (1 << KEYS.length) - 1;
+
+    private InputFormat() {}
+
+    /**
+     * @return the mask bit of {@code keyCode}, or 0 if the key is not recorded
+     */
+    static int bitOf(int keyCode) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i] == keyCode) return 1 << i;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,120 @@
+package bricker.replay;
+
+import bricker.gameobjects.AutopilotPaddle;
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the keys the game polls, and the length of every frame, into a compact binary file
+ * (see {@link InputFormat}). Only changes are written, so a session of steady input costs a few
+ * bytes per change rather than per frame. Together with the seed and the autopilot skill in the
+ * header, a recording replays the session exactly with {@link ReplayRunner}.
+ */
+public class InputRecorder implements Closeable {
+    private final DataOutputStream out;
+    private long frame = 0;
+    private long lastRecordFrame = 0;
+    private int lastMask = -1;
+    private float lastDeltaTime = Float.NaN;
+    private boolean closed = false;
+
+    /**
+     * Create a recording file and write its header.
+     *
+     * @param path destination file; replaced if it exists
+     * @param seed seed of the recorded game
+     * @param cols bricks per row of the recorded game
+     * @param rows rows of bricks of the recorded game
+     * @param windowDimensions window size of the recorded game
+     * @param autopilot skill of the autopilot steering the paddle, or null if a player does
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public InputRecorder(Path path, long seed, int cols, int rows, Vector2 windowDimensions,
+                         AutopilotPaddle.Skill autopilot) {
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            out.writeInt(InputFormat.MAGIC);
+            out.writeByte(InputFormat.VERSION);
+            out.writeLong(seed);
+            out.writeInt(cols);
+            out.writeInt(rows);
+            out.writeFloat(windowDimensions.x());
+            out.writeFloat(windowDimensions.y());
+            out.writeByte(autopilot == null ? InputFormat.NO_AUTOPILOT : 1 + autopilot.ordinal());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write input recording " + path, e);
+        }
+    }
+
+    /**
+     * Record one frame. Call at the start of every frame, before anything polls the input.
+     *
+     * @param input the listener the game polls
+     * @param deltaTime the frame's delta time
+     */
+    public synchronized void onFrame(UserInputListener input, float deltaTime) {
+        if (closed) return;
+        int mask = 0;
+        for (int i = 0; i < InputFormat.KEYS.length; i++) {
+            if (input.isKeyPressed(InputFormat.KEYS[i])) mask |= 1 << i;
+        }
+        boolean deltaChanged = Float.floatToIntBits(deltaTime) != Float.floatToIntBits(lastDeltaTime);
+        if (mask != lastMask || deltaChanged) {
+            int flags = mask | (deltaChanged ? InputFormat.FLAG_DELTA_TIME : 0);
+            writeRecord(frame, flags);
+            if (deltaChanged) writeFloat(deltaTime);
+            lastMask = mask;
+            lastDeltaTime = deltaTime;
+        }
+        frame++;
+    }
+
+    /**
+     * Write the end record, which stores the number of recorded frames, and close the file.
+     * Further frames are ignored.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        writeRecord(frame, InputFormat.FLAG_END);
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*====== Helpers =======*/
+    private void writeRecord(long recordFrame, int flags) {
+        try {
+            long gap = recordFrame - lastRecordFrame;
+            // unsigned LEB128 varint
+            while ((gap & ~0x7FL) != 0) {
+                out.writeByte((int) ((gap & 0x7F) | 0x80));
+                gap >>>= 7;
+            }
+            out.writeByte((int) gap);
+            out.writeByte(flags);
+            lastRecordFrame = recordFrame;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeFloat(float value) {
+        try {
+            out.writeFloat(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
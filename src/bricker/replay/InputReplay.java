@@ -0,0 +1,203 @@
+package bricker.replay;
+
+import bricker.gameobjects.AutopilotPaddle;
+import danogl.util.Vector2;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A loaded input recording (see {@link InputFormat}) and a cursor over its frames. Call
+ * {@link #advance()} once at the start of every frame; the key state and delta time then
+ * answer for that frame.
+ */
+public class InputReplay {
+    private static final int INITIAL_RECORDS = 64;
+
+    private final long seed;
+    private final int cols;
+    private final int rows;
+    private final Vector2 windowDimensions;
+    private final AutopilotPaddle.Skill autopilot;
+    // one entry per record: the frame it applies from, its key mask and delta time
+    private final long[] recordFrames;
+    private final byte[] recordMasks;
+    private final float[] recordDeltaTimes;
+    private final int recordCount;
+    private final long frameCount; // -1 if the recording was cut off before its end record
+
+    private long frame = -1;
+    private int nextRecord = 0;
+    private int mask = 0;
+    private float deltaTime = 0;
+
+    private InputReplay(long seed, int cols, int rows, Vector2 windowDimensions,
+                        AutopilotPaddle.Skill autopilot, long[] recordFrames, byte[] recordMasks, float[] recordDeltaTimes,
+                        int recordCount, long frameCount) {
+        this.seed = seed;
+        this.cols = cols;
+        this.rows = rows;
+        this.windowDimensions = windowDimensions;
+        this.autopilot = autopilot;
+        this.recordFrames = recordFrames;
+        this.recordMasks = recordMasks;
+        this.recordDeltaTimes = recordDeltaTimes;
+        this.recordCount = recordCount;
+        this.frameCount = frameCount;
+    }
+
+    /**
+     * Load a recording. A file cut off after its last complete record (e.g. by a crash) is
+     * accepted; its last state then lasts until the replay is stopped.
+     *
+     * @param path the recording
+     * @return the replay, positioned before the first frame
+     * @throws UncheckedIOException if the file cannot be read or is not a recording
+     */
+    public static InputReplay load(Path path) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != InputFormat.MAGIC) throw new IOException("not an input recording");
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > InputFormat.VERSION) {
+                throw new IOException("unsupported recording version " + version);
+            }
+            long seed = in.readLong();
+            int cols = in.readInt();
+            int rows = in.readInt();
+            Vector2 window = new Vector2(in.readFloat(), in.readFloat());
+            AutopilotPaddle.Skill autopilot = null;
+            if (version >= InputFormat.FIRST_VERSION_WITH_AUTOPILOT) {
+                int code = in.readUnsignedByte();
+                AutopilotPaddle.Skill[] skills = AutopilotPaddle.Skill.values();
+                if (code > skills.length) throw new IOException("unknown autopilot " + code);
+                if (code != InputFormat.NO_AUTOPILOT) autopilot = skills[code - 1];
+            }
+
+            long[] frames = new long[INITIAL_RECORDS];
+            byte[] masks = new byte[INITIAL_RECORDS];
+            float[] deltaTimes = new float[INITIAL_RECORDS];
+            int count = 0;
+            long frame = 0;
+            long frameCount = -1;
+            float deltaTime = 0;
+            while (true) {
+                long gap;
+                int flags;
+                try {
+                    gap = readVarint(in);
+                    flags = in.readUnsignedByte();
+                    if ((flags & InputFormat.FLAG_DELTA_TIME) != 0) deltaTime = in.readFloat();
+                } catch (EOFException e) {
+                    break;
+                }
+                frame += gap;
+                if ((flags & InputFormat.FLAG_END) != 0) {
+                    frameCount = frame;
+                    break;
+                }
+                if (count == frames.length) {
+                    frames = Arrays.copyOf(frames, count * 2);
+                    masks = Arrays.copyOf(masks, count * 2);
+                    deltaTimes = Arrays.copyOf(deltaTimes, count * 2);
+                }
+                frames[count] = frame;
+                masks[count] = (byte) (flags & InputFormat.KEY_MASK);
+                deltaTimes[count] = deltaTime;
+                count++;
+            }
+            return new InputReplay(seed, cols, rows, window, autopilot, frames, masks, deltaTimes, count,
+                    frameCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read input recording " + path, e);
+        }
+    }
+
+    /**
+     * Move to the next frame.
+     *
+     * @return false once every recorded frame has been replayed
+     */
+    public boolean advance() {
+        if (frameCount >= 0 && frame + 1 >= frameCount) return false;
+        frame++;
+        while (nextRecord < recordCount && recordFrames[nextRecord] <= frame) {
+            mask = recordMasks[nextRecord];
+            deltaTime = recordDeltaTimes[nextRecord];
+            nextRecord++;
+        }
+        return true;
+    }
+
+    /**
+     * Move back before the first frame.
+     */
+    public void rewind() {
+        frame = -1;
+        nextRecord = 0;
+        mask = 0;
+        deltaTime = 0;
+    }
+
+    /**
+     * @param keyCode key code, as in {@link java.awt.event.KeyEvent}
+     * @return true if the key was held during the current frame
+     */
+    public boolean isKeyPressed(int keyCode) {
+        return (mask & InputFormat.bitOf(keyCode)) != 0;
+    }
+
+    /**
+     * @return delta time of the current frame
+     */
+    public float getDeltaTime() { return deltaTime; }
+
+    /**
+     * @return number of recorded frames, or -1 if the recording has no end record
+     */
+    public long getFrameCount() { return frameCount; }
+
+    /**
+     * @return seed of the recorded game
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * @return bricks per row of the recorded game
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @return rows of bricks of the recorded game
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return window size of the recorded game
+     */
+    public Vector2 getWindowDimensions() { return windowDimensions; }
+
+    /**
+     * @return skill of the autopilot that steered the paddle, or null if a player did
+     */
+    public AutopilotPaddle.Skill getAutopilot() { return autopilot; }
+
+    /*====== Helpers =======*/
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+            if (shift > 63) throw new IOException("malformed varint");
+        }
+    }
+}
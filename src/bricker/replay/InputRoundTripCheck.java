@@ -0,0 +1,185 @@
+package bricker.replay;
+
+import bricker.gameobjects.AutopilotPaddle;
+import bricker.main.HeadlessSimulation;
+import bricker.util.GameRandom;
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Headless check that an input recording replays exactly what was recorded. A scripted session,
+ * random key changes held for a few frames and a few long frames among the fixed ones, is
+ * recorded and read back, and every frame must replay the same keys and delta time. The session
+ * then drives a headless game that records its own input again, once played by hand and once by
+ * an autopilot; replaying that second recording must poll the same keys and produce the same
+ * state hash on every frame.
+ * <p>
+ * Exits with status 1 on the first mismatch.
+ */
+public class InputRoundTripCheck {
+    private static final Vector2 WINDOW = new Vector2(700, 500);
+    private static final int COLS = 8;
+    private static final int ROWS = 7;
+    private static final int FRAMES = 3_000;
+    private static final int MAX_HOLD_FRAMES = 40;
+    private static final float TIMESTEP = 1f / 60f;
+    private static final float LONG_FRAME = 1f / 20f;
+    // one frame in LONG_FRAME_ODDS is a long one
+    private static final int LONG_FRAME_ODDS = 50;
+    private static final long SEED = 42;
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        int[] masks = new int[FRAMES];
+        float[] deltaTimes = new float[FRAMES];
+        script(masks, deltaTimes);
+
+        Path scripted = tempFile();
+        Path played = tempFile();
+        try {
+            record(masks, deltaTimes, scripted);
+            InputReplay replay = InputReplay.load(scripted);
+            int frame = compareScript(replay, masks, deltaTimes);
+            if (frame >= 0) fail("the recording replays other input at frame " + frame);
+            System.out.printf("%d scripted frames replay the recorded keys and delta times%n",
+                    FRAMES);
+
+            AutopilotPaddle.Skill[] pilots = { null, AutopilotPaddle.Skill.GOOD };
+            for (AutopilotPaddle.Skill pilot : pilots) {
+                long[] recordedHashes = new long[FRAMES];
+                HeadlessSimulation simulation =
+                        new HeadlessSimulation(COLS, ROWS, WINDOW, TIMESTEP, true, SEED);
+                simulation.setAutopilot(pilot);
+                simulation.setReplay(replay);
+                HeadlessSimulation.Result recorded;
+                try (InputRecorder recorder =
+                             new InputRecorder(played, SEED, COLS, ROWS, WINDOW, pilot)) {
+                    simulation.setInputRecorder(recorder);
+                    recorded = simulation.run(FRAMES, recordedHashes);
+                }
+
+                InputReplay rerun = InputReplay.load(played);
+                if (rerun.getAutopilot() != pilot) fail("the autopilot is not restored");
+                frame = compareScript(rerun, masks, deltaTimes);
+                if (frame >= 0) fail("the game recorded other input at frame " + frame);
+                long[] replayedHashes = new long[FRAMES];
+                HeadlessSimulation replaying = new HeadlessSimulation(rerun.getCols(),
+                        rerun.getRows(), rerun.getWindowDimensions(), TIMESTEP, true,
+                        rerun.getSeed());
+                replaying.setAutopilot(rerun.getAutopilot());
+                replaying.setReplay(rerun);
+                HeadlessSimulation.Result replayed = replaying.run(FRAMES, replayedHashes);
+                System.out.printf("%s: %d frames, %d games, state hash %016x recorded, "
+                                + "%016x replayed%n",
+                        pilot == null ? "by hand" : "autopilot " + pilot, replayed.getFrames(),
+                        replayed.getGamesPlayed(), recorded.getStateHash(),
+                        replayed.getStateHash());
+                if (replayed.getFrames() != recorded.getFrames()) {
+                    fail("the replay ran " + replayed.getFrames() + " frames instead of "
+                            + recorded.getFrames());
+                }
+                for (int i = 0; i < recorded.getFrames(); i++) {
+                    if (recordedHashes[i] != replayedHashes[i]) {
+                        fail("the replayed state diverges at frame " + i);
+                    }
+                }
+            }
+        } finally {
+            delete(scripted);
+            delete(played);
+        }
+        System.out.println("OK");
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Draw the keys and delta time of every frame of the scripted session.
+     */
+    private static void script(int[] masks, float[] deltaTimes) {
+        GameRandom rand = new GameRandom(SEED);
+        int frame = 0;
+        while (frame < masks.length) {
+            int mask = rand.nextInt(1 << InputFormat.KEYS.length);
+            int hold = 1 + rand.nextInt(MAX_HOLD_FRAMES);
+            for (int i = 0; i < hold && frame < masks.length; i++, frame++) {
+                masks[frame] = mask;
+                deltaTimes[frame] = rand.nextInt(LONG_FRAME_ODDS) == 0 ? LONG_FRAME : TIMESTEP;
+            }
+        }
+    }
+
+    /**
+     * Record the scripted session into {@code path}, as a game polling a listener would.
+     */
+    private static void record(int[] masks, float[] deltaTimes, Path path) {
+        int[] current = new int[1];
+        UserInputListener input = (UserInputListener) Proxy.newProxyInstance(
+                UserInputListener.class.getClassLoader(),
+                new Class<?>[] { UserInputListener.class },
+                (proxy, method, methodArgs) -> {
+                    if (!"isKeyPressed".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return (current[0] & InputFormat.bitOf((Integer) methodArgs[0])) != 0;
+                });
+        try (InputRecorder recorder = new InputRecorder(path, SEED, COLS, ROWS, WINDOW, null)) {
+            for (int frame = 0; frame < masks.length; frame++) {
+                current[0] = masks[frame];
+                recorder.onFrame(input, deltaTimes[frame]);
+            }
+        }
+    }
+
+    /**
+     * Replay {@code replay} from its start against the scripted session.
+     *
+     * @return the first frame whose keys or delta time differ, or -1 if every frame matches and
+     *         the replay ends with the session
+     */
+    private static int compareScript(InputReplay replay, int[] masks, float[] deltaTimes) {
+        replay.rewind();
+        for (int frame = 0; frame < masks.length; frame++) {
+            if (!replay.advance()) return frame;
+            for (int key : InputFormat.KEYS) {
+                boolean scripted = (masks[frame] & InputFormat.bitOf(key)) != 0;
+                if (replay.isKeyPressed(key) != scripted) return frame;
+            }
+            if (Float.floatToIntBits(replay.getDeltaTime())
+                    != Float.floatToIntBits(deltaTimes[frame])) {
+                return frame;
+            }
+        }
+        return replay.advance() || replay.getFrameCount() != masks.length ? masks.length : -1;
+    }
+
+    private static Path tempFile() {
+        try {
+            return Files.createTempFile("bricker-input-", ".brki");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,54 @@
+package bricker.replay;
+
+import bricker.levels.LevelFile;
+import bricker.main.HeadlessSimulation;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Replays an input recording without a window: the recorded seed, grid, window size and
+ * autopilot rebuild the same game, and the recorded keys and frame times drive it frame by
+ * frame. Prints the run's timing and final state hash, so a captured session doubles as a
+ * repeatable performance workload and as a regression check.
+ */
+public class ReplayRunner {
+    private static final float NANOS_PER_MILLI = 1e6f;
+    private static final String LEVEL_FLAG = "--level=";
+
+    /**
+     * Entry point.
+     *
+     * @param args optionally {@code --level=FILE} for sessions played on a level file, then the
+     *             recording file, then optionally a frame limit for recordings without an end
+     */
+    public static void main(String[] args) {
+        String levelFile = null;
+        if (args != null && args.length > 0 && args[0].startsWith(LEVEL_FLAG)) {
+            levelFile = args[0].substring(LEVEL_FLAG.length());
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        if (args == null || args.length < 1) {
+            System.err.println("usage: ReplayRunner [--level=FILE] RECORDING [frames]");
+            return;
+        }
+        InputReplay replay = InputReplay.load(Paths.get(args[0]));
+        int frames = args.length >= 2 ? Integer.parseInt(args[1])
+                : replay.getFrameCount() >= 0 ? (int) replay.getFrameCount() : Integer.MAX_VALUE;
+
+        HeadlessSimulation simulation = new HeadlessSimulation(
+                replay.getCols(), replay.getRows(), replay.getWindowDimensions(),
+                0f, true, replay.getSeed());
+        if (levelFile != null) simulation.setLevel(LevelFile.read(Paths.get(levelFile)));
+        simulation.setAutopilot(replay.getAutopilot());
+        simulation.setReplay(replay);
+        long[] frameHashes = new long[frames == Integer.MAX_VALUE ? 0 : frames];
+        HeadlessSimulation.Result result = frameHashes.length == 0
+                ? simulation.run(frames) : simulation.run(frames, frameHashes);
+        System.out.printf("%s: %d frames, %d games in %.1f ms (%.0f simulated frames/s), "
+                        + "state hash %016x%n",
+                args[0], result.getFrames(), result.getGamesPlayed(),
+                result.getElapsedNanos() / NANOS_PER_MILLI, result.getFramesPerSecond(),
+                result.getStateHash());
+    }
+}
@@ -0,0 +1,62 @@
+package bricker.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded, splittable source of randomness for one game. Every consumer (the brick layout, the
+ * ball, the pucks) gets its own stream split from the game's root generator in a fixed order,
+ * so the draws of one consumer never shift those of another. Two games started from the same
+ * seed with the same inputs therefore make exactly the same random choices.
+ */
+public class GameRandom {
+    private final SplittableRandom random;
+
+    /**
+     * Construct a generator from a seed.
+     *
+     * @param seed the seed; equal seeds produce equal sequences
+     */
+    public GameRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private GameRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Create an independent generator whose sequence is fully determined by this one's state.
+     * Advances this generator.
+     *
+     * @return a new generator
+     */
+    public GameRandom split() {
+        return new GameRandom(random.split());
+    }
+
+    /**
+     * @return a uniformly distributed boolean
+     */
+    public boolean nextBoolean() { return random.nextBoolean(); }
+
+    /**
+     * @param bound exclusive upper bound; must be positive
+     * @return a uniformly distributed int in {@code [0, bound)}
+     */
+    public int nextInt(int bound) { return random.nextInt(bound); }
+
+    /**
+     * @return a uniformly distributed long
+     */
+    public long nextLong() { return random.nextLong(); }
+
+    /**
+     * @return a uniformly distributed float in {@code [0, 1)}
+     */
+    public float nextFloat() { return (random.nextInt() >>> 8) * 0x1.0p-24f; }
+
+    /**
+     * @return a uniformly distributed double in {@code [0, 1)}
+     */
+    public double nextDouble() { return random.nextDouble(); }
+}
@@ -0,0 +1,61 @@
+package bricker.util;
+
+/**
+ * Accumulates a 64-bit digest of game state. Floats are hashed by their exact bit patterns, so
+ * two states hash equally only if they are bit-identical (up to hash collisions). The
+ * accumulator is reusable: {@link #reset()} it at the start of every frame.
+ */
+public class StateHash {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0xBF58476D1CE4E5B9L;
+
+    private long hash = SEED;
+
+    /**
+     * Start a new digest.
+     *
+     * @return this accumulator
+     */
+    public StateHash reset() {
+        hash = SEED;
+        return this;
+    }
+
+    /**
+     * Mix a value into the digest.
+     *
+     * @param value the value
+     * @return this accumulator
+     */
+    public StateHash add(long value) {
+        hash = mix(hash ^ value) * MULTIPLIER + 1;
+        return this;
+    }
+
+    /**
+     * Mix a float into the digest by its bit pattern.
+     *
+     * @param value the value
+     * @return this accumulator
+     */
+    public StateHash add(float value) {
+        return add(Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * @return the digest of everything added since the last reset
+     */
+    public long value() {
+        return mix(hash);
+    }
+
+    /*====== Helpers =======*/
+    /**
+     * Finalizer of SplitMix64; spreads every input bit over the whole word.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * MULTIPLIER;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}